@@ -46,8 +46,16 @@ javafx {
 }
 
 tasks {
+    // The incubating Vector API is optional at runtime, the noise kernels fall back to scalar code without it
+    withType<JavaCompile> {
+        options.compilerArgs.add("--add-modules=jdk.incubator.vector")
+    }
+    withType<JavaExec> {
+        jvmArgs("--add-modules=jdk.incubator.vector")
+    }
     test {
         jvmArgs(
+            "--add-modules=jdk.incubator.vector",
             "-Djava.awt.headless=true",
             "-Dtestfx.robot=glass",
             "-Dtestfx.headless=true",
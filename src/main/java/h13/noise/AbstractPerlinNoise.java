@@ -3,8 +3,6 @@ package h13.noise;
 import javafx.geometry.Point2D;
 import org.tudalgo.algoutils.student.annotation.StudentImplementationRequired;
 
-import java.util.Arrays;
-import java.util.Objects;
 import java.util.Random;
 
 /**
@@ -21,6 +19,11 @@ public abstract class AbstractPerlinNoise implements PerlinNoise {
      */
     public static final double DEFAULT_FREQUENCY = 0.005;
 
+    /**
+     * The approximate number of bytes retained by a gradient vector of the gradient array.
+     */
+    private static final int POINT_BYTES = 36;
+
     /**
      * The random generator used for generating gradient vectors.
      */
@@ -37,13 +40,16 @@ public abstract class AbstractPerlinNoise implements PerlinNoise {
 
     private final int height;
     /**
-     * The array of gradient vectors where each vector is associated with a grid cell.
+     * The array of gradient vectors where each vector is associated with a grid cell, or {@code null} if the gradient
+     * vectors are only stored in the gradient table. The constructors store the gradient vectors in the gradient table
+     * only, so that they are not stored twice. If an array is assigned afterwards, e.g. by tests, it takes precedence
+     * over the gradient table in {@link #getGradient(int, int)}.
      */
     private final Point2D[] gradients;
     /**
-     * The hash code of this Perlin noise object used for caching.
+     * The table of gradient vectors in primitive storage, which is read by the region evaluations.
      */
-    protected int hashCode = -1;
+    private final GradientTable gradientTable;
     /**
      * The frequency of the Perlin noise.
      */
@@ -71,6 +77,30 @@ public abstract class AbstractPerlinNoise implements PerlinNoise {
      * @throws IllegalArgumentException if the width or height is negative, or if the frequency is not between 0 and 1
      */
     public AbstractPerlinNoise(int width, int height, double frequency, Random randomGenerator) {
+        this(width, height, frequency, randomGenerator, width + 1, height + 1);
+    }
+
+    /**
+     * Constructs an abstract Perlin noise with the specified noise domain, frequency and randomGenerator whose
+     * gradient table has the specified size. This allows implementations which do not index the gradients by the
+     * lattice corners, e.g. through a permutation array, to only generate the gradients they access.
+     *
+     * @param width           the width of the noise domain
+     * @param height          the height of the noise domain
+     * @param frequency       the frequency of the Perlin noise
+     * @param randomGenerator the random generator used for generating gradient vectors
+     * @param gradientsWidth  the width of the gradient table
+     * @param gradientsHeight the height of the gradient table
+     * @throws IllegalArgumentException if the width or height is negative, or if the frequency is not between 0 and 1
+     */
+    protected AbstractPerlinNoise(
+        int width,
+        int height,
+        double frequency,
+        Random randomGenerator,
+        int gradientsWidth,
+        int gradientsHeight
+    ) {
         if (width < 0) {
             throw new IllegalArgumentException("Width cannot be negative");
         }
@@ -81,7 +111,45 @@ public abstract class AbstractPerlinNoise implements PerlinNoise {
         this.height = height;
         setFrequency(frequency);
         this.randomGenerator = randomGenerator;
-        this.gradients = createGradients(width + 1, height + 1);
+        this.gradients = null;
+        this.gradientTable = ArrayGradientTable.of(
+            gradientsWidth,
+            gradientsHeight,
+            createGradients(gradientsWidth, gradientsHeight)
+        );
+    }
+
+    /**
+     * Constructs an abstract Perlin noise with the specified noise domain, frequency, randomGenerator and gradient
+     * table. The gradient table is used as is, so no gradient vectors are generated and no array of gradient
+     * vectors is stored.
+     *
+     * @param width           the width of the noise domain
+     * @param height          the height of the noise domain
+     * @param frequency       the frequency of the Perlin noise
+     * @param randomGenerator the random generator of the Perlin noise
+     * @param gradients       the table of gradient vectors associated with the lattice corners
+     * @throws IllegalArgumentException if the width or height is negative, or if the frequency is not between 0 and 1
+     */
+    protected AbstractPerlinNoise(
+        int width,
+        int height,
+        double frequency,
+        Random randomGenerator,
+        GradientTable gradients
+    ) {
+        if (width < 0) {
+            throw new IllegalArgumentException("Width cannot be negative");
+        }
+        this.width = width;
+        if (height < 0) {
+            throw new IllegalArgumentException("Width cannot be negative");
+        }
+        this.height = height;
+        setFrequency(frequency);
+        this.randomGenerator = randomGenerator;
+        this.gradients = null;
+        this.gradientTable = gradients;
     }
 
     /**
@@ -160,21 +228,122 @@ public abstract class AbstractPerlinNoise implements PerlinNoise {
         return randomGenerator;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The gradient vectors are stored in the gradient table, so the returned array is a
+     * {@linkplain #snapshotGradients() snapshot} of the gradient table which is created on each call. Modifying it does
+     * not affect this Perlin noise object.
+     */
     @Override
     public Point2D[] getGradients() {
-        return gradients;
+        return gradients != null ? gradients : snapshotGradients();
+    }
+
+    /**
+     * Returns a snapshot of the gradient vectors of the gradient table in the order in which they would be stored in
+     * the array of gradient vectors, i.e. the gradient vectors of the lattice corners of the noise domain row by row.
+     *
+     * @return a snapshot of the gradient vectors of the gradient table
+     */
+    protected Point2D[] snapshotGradients() {
+        Point2D[] result = new Point2D[(width + 1) * (height + 1)];
+        for (int y = 0; y < height + 1; y++) {
+            for (int x = 0; x < width + 1; x++) {
+                result[(width + 1) * y + x] = gradientTable.get(gradientTable.index(x, y));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the table of gradient vectors associated with the lattice corners.
+     *
+     * @return the table of gradient vectors associated with the lattice corners
+     */
+    public GradientTable getGradientTable() {
+        return gradientTable;
     }
 
     @Override
     @StudentImplementationRequired
     public Point2D getGradient(int x, int y) {
         // TODO H1.1
+        if (gradients == null) {
+            // The gradient table maps the corner to its slot itself
+            return gradientTable.get(gradientTable.index(x, y));
+        }
         // Position of a 2D gradient (x, y) vector in a 1D array: (width + 1) * y + x
-        // The 12 is because the gradient array is one units larger than the noise domain
+        // The +1 is because the gradient array is one units larger than the noise domain
         // (width + 1) * y =  first dimension of the 2D array, x = second dimension of the 2D array
         return gradients[(width + 1) * y + x];
     }
 
+    /**
+     * Returns the slot of the gradient table which holds the gradient vector associated with the specified gradient
+     * domain coordinates. Subclasses which change how the gradient vectors are accessed override this method, so that
+     * {@link #getGradient(int, int)} and region evaluations reading the gradient table directly stay consistent.
+     *
+     * @param x the x coordinate of the gradient domain
+     * @param y the y coordinate of the gradient domain
+     * @return the slot of the gradient table associated with the specified gradient domain coordinates
+     */
+    @StudentImplementationRequired
+    protected int getGradientIndex(int x, int y) {
+        // TODO H1.1
+        if (gradients == null) {
+            return gradientTable.index(x, y);
+        }
+        // Same position as in getGradient(int, int), which is also the row-major slot of the gradient table
+        return (width + 1) * y + x;
+    }
+
+    /**
+     * Returns the gradient vector stored at the specified slot of the gradient table, or of the gradient array if one
+     * was assigned.
+     *
+     * @param index the slot of the gradient vector
+     * @return the gradient vector stored at the specified slot
+     */
+    protected Point2D getGradient(int index) {
+        return gradients != null ? gradients[index] : gradientTable.get(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>If an array of gradient vectors was assigned, it is counted in addition to the gradient table, with an object
+     * header, two components, a cached hash code and a compressed reference per gradient vector.
+     */
+    @Override
+    public long retainedSize() {
+        long size = gradientTable.retainedSize();
+        if (gradients != null) {
+            size += (long) POINT_BYTES * gradients.length;
+        }
+        return size;
+    }
+
+    @Override
+    public boolean hasFingerprint() {
+        return true;
+    }
+
+    @Override
+    public long fingerprint() {
+        long fingerprint = Fingerprints.of(getClass());
+        fingerprint = Fingerprints.combine(fingerprint, width);
+        fingerprint = Fingerprints.combine(fingerprint, height);
+        fingerprint = Fingerprints.combine(fingerprint, frequency);
+        return Fingerprints.combine(fingerprint, gradientTable.fingerprint());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Two Perlin noise objects are considered equal if they have the same class and
+     * {@linkplain #fingerprint() fingerprint}, so the gradient vectors are not compared one by one.
+     */
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -184,18 +353,11 @@ public abstract class AbstractPerlinNoise implements PerlinNoise {
             return false;
         }
         AbstractPerlinNoise that = (AbstractPerlinNoise) o;
-        return width == that.width
-            && height == that.height
-            && Double.compare(frequency, that.frequency) == 0
-            && Arrays.equals(gradients, that.gradients);
+        return fingerprint() == that.fingerprint();
     }
 
     @Override
     public int hashCode() {
-        if (hashCode == -1) {
-            int result = Objects.hash(width, height, frequency, Arrays.hashCode(gradients));
-            hashCode = 31 * result + Arrays.hashCode(gradients);
-        }
-        return hashCode;
+        return Long.hashCode(fingerprint());
     }
 }
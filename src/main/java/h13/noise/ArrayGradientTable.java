@@ -0,0 +1,150 @@
+package h13.noise;
+
+import javafx.geometry.Point2D;
+
+import java.util.Arrays;
+
+/**
+ * A gradient table which stores the gradient vectors of a bounded lattice in a primitive array.
+ *
+ * <p>The vectors are stored row by row and interleaved as primitive components, i.e. the gradient at slot {@code i}
+ * is {@code (components[2 * i], components[2 * i + 1])} and the corner (x, y) is stored in slot
+ * {@code width * y + x}.
+ *
+ * @see GradientTable
+ */
+public class ArrayGradientTable implements GradientTable {
+
+    /**
+     * The number of lattice corners per row.
+     */
+    private final int width;
+
+    /**
+     * The number of lattice rows.
+     */
+    private final int height;
+
+    /**
+     * The interleaved x and y components of the gradient vectors.
+     */
+    private final double[] components;
+
+    /**
+     * The fingerprint of the gradient vectors, or 0 if it has not been computed yet.
+     */
+    private long fingerprint;
+
+    /**
+     * Constructs a gradient table with the specified lattice dimension and gradient components.
+     *
+     * @param width      the number of lattice corners per row
+     * @param height     the number of lattice rows
+     * @param components the interleaved x and y components of the gradient vectors
+     * @throws IllegalArgumentException if the number of components does not match the lattice dimension
+     */
+    public ArrayGradientTable(int width, int height, double[] components) {
+        if (components.length != width * height * 2) {
+            throw new IllegalArgumentException("Expected %d components, but got %d"
+                .formatted(width * height * 2, components.length));
+        }
+        this.width = width;
+        this.height = height;
+        this.components = components;
+    }
+
+    /**
+     * Copies the specified gradient vectors, which are stored row by row, into a gradient table.
+     *
+     * @param width     the number of lattice corners per row
+     * @param height    the number of lattice rows
+     * @param gradients the gradient vectors, stored row by row
+     * @return a gradient table with the specified gradient vectors
+     * @throws IllegalArgumentException if the number of gradient vectors does not match the lattice dimension
+     */
+    public static ArrayGradientTable of(int width, int height, Point2D[] gradients) {
+        double[] components = new double[gradients.length * 2];
+        for (int i = 0; i < gradients.length; i++) {
+            components[2 * i] = gradients[i].getX();
+            components[2 * i + 1] = gradients[i].getY();
+        }
+        return new ArrayGradientTable(width, height, components);
+    }
+
+    @Override
+    public int index(int x, int y) {
+        return width * y + x;
+    }
+
+    @Override
+    public double getX(int index) {
+        return components[2 * index];
+    }
+
+    @Override
+    public double getY(int index) {
+        return components[2 * index + 1];
+    }
+
+    @Override
+    public double dot(int index, double dx, double dy) {
+        return components[2 * index] * dx + components[2 * index + 1] * dy;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The fingerprint is computed from all gradient vectors on first access and cached afterwards.
+     */
+    @Override
+    public long fingerprint() {
+        long fingerprint = this.fingerprint;
+        if (fingerprint == 0) {
+            fingerprint = Fingerprints.combine(Fingerprints.combine(Fingerprints.of(components), width), height);
+            // 0 marks a missing fingerprint
+            fingerprint = fingerprint == 0 ? 1 : fingerprint;
+            this.fingerprint = fingerprint;
+        }
+        return fingerprint;
+    }
+
+    @Override
+    public long retainedSize() {
+        return (long) Double.BYTES * components.length;
+    }
+
+    /**
+     * Returns the number of lattice corners per row.
+     *
+     * @return the number of lattice corners per row
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the number of lattice rows.
+     *
+     * @return the number of lattice rows
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ArrayGradientTable that = (ArrayGradientTable) o;
+        return width == that.width && height == that.height && Arrays.equals(components, that.components);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(fingerprint());
+    }
+}
@@ -0,0 +1,171 @@
+package h13.noise;
+
+import java.util.Arrays;
+
+/**
+ * A gradient table which stores the gradient vectors of a bounded lattice in square blocks of
+ * {@value #BLOCK_SIZE} x {@value #BLOCK_SIZE} corners instead of row by row.
+ *
+ * <p>In the row-major layout of {@link ArrayGradientTable}, the upper corners of a lattice cell are a whole lattice
+ * row away from its lower corners, so every cell touches at least two distant cache lines, and on wide domains two
+ * pages. In the blocked layout, each row of a block fills one cache line and the rows of a block are consecutive, so
+ * the corners of most cells lie within two adjacent cache lines of the same page. The layout is hidden behind
+ * {@link #index(int, int)}, so the noise algorithms are unaffected.
+ *
+ * <p>The lattice is padded to whole blocks. A table has the same {@linkplain #fingerprint() fingerprint} as the
+ * {@link ArrayGradientTable} it was created from, so noises using either table are considered equal.
+ *
+ * @see PerlinNoise#blocked(int, int, double, java.util.Random)
+ */
+public class BlockedGradientTable implements GradientTable {
+
+    /**
+     * The binary logarithm of the number of corners per block row.
+     */
+    private static final int BLOCK_SHIFT = 2;
+
+    /**
+     * The number of corners per block row and block column. A block row of 4 gradient vectors fills one 64-byte
+     * cache line.
+     */
+    public static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+
+    /**
+     * The mask which selects the position of a corner within its block.
+     */
+    private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+
+    /**
+     * The number of lattice corners per row.
+     */
+    private final int width;
+
+    /**
+     * The number of lattice rows.
+     */
+    private final int height;
+
+    /**
+     * The number of blocks per row of blocks.
+     */
+    private final int blocksPerRow;
+
+    /**
+     * The interleaved x and y components of the gradient vectors, stored block by block.
+     */
+    private final double[] components;
+
+    /**
+     * The fingerprint of the gradient vectors, which is the one of the row-major table.
+     */
+    private final long fingerprint;
+
+    /**
+     * Constructs a gradient table with the specified lattice dimension and blocked gradient components.
+     *
+     * @param width       the number of lattice corners per row
+     * @param height      the number of lattice rows
+     * @param components  the interleaved x and y components of the gradient vectors, stored block by block
+     * @param fingerprint the fingerprint of the gradient vectors
+     */
+    private BlockedGradientTable(int width, int height, double[] components, long fingerprint) {
+        this.width = width;
+        this.height = height;
+        this.blocksPerRow = blocks(width);
+        this.components = components;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Returns the number of blocks which cover the specified number of corners.
+     *
+     * @param corners the number of corners
+     * @return the number of blocks which cover the specified number of corners
+     */
+    private static int blocks(int corners) {
+        return (corners + BLOCK_MASK) >> BLOCK_SHIFT;
+    }
+
+    /**
+     * Copies the specified gradient table into the blocked layout.
+     *
+     * @param table the gradient table to copy
+     * @return a gradient table with the same gradient vectors in the blocked layout
+     */
+    public static BlockedGradientTable of(ArrayGradientTable table) {
+        int width = table.getWidth();
+        int height = table.getHeight();
+        double[] components = new double[2 * blocks(width) * blocks(height) * BLOCK_SIZE * BLOCK_SIZE];
+        BlockedGradientTable blocked = new BlockedGradientTable(width, height, components, table.fingerprint());
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int from = table.index(x, y);
+                int to = blocked.index(x, y);
+                components[2 * to] = table.getX(from);
+                components[2 * to + 1] = table.getY(from);
+            }
+        }
+        return blocked;
+    }
+
+    @Override
+    public int index(int x, int y) {
+        int block = (y >> BLOCK_SHIFT) * blocksPerRow + (x >> BLOCK_SHIFT);
+        return (block << (2 * BLOCK_SHIFT)) | ((y & BLOCK_MASK) << BLOCK_SHIFT) | (x & BLOCK_MASK);
+    }
+
+    @Override
+    public double getX(int index) {
+        return components[2 * index];
+    }
+
+    @Override
+    public double getY(int index) {
+        return components[2 * index + 1];
+    }
+
+    @Override
+    public long fingerprint() {
+        return fingerprint;
+    }
+
+    @Override
+    public long retainedSize() {
+        return (long) Double.BYTES * components.length;
+    }
+
+    /**
+     * Returns the number of lattice corners per row.
+     *
+     * @return the number of lattice corners per row
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the number of lattice rows.
+     *
+     * @return the number of lattice rows
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        BlockedGradientTable that = (BlockedGradientTable) o;
+        return width == that.width && height == that.height && Arrays.equals(components, that.components);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(fingerprint);
+    }
+}
@@ -0,0 +1,305 @@
+package h13.noise;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A gradient table which stores the gradient vectors of a bounded lattice outside the Java heap, either in a direct
+ * buffer or in a memory-mapped file.
+ *
+ * <p>The layout matches {@link ArrayGradientTable}: the vectors are stored row by row and interleaved as primitive
+ * components. Since the garbage collector does not scan or move the components, large tables do not increase the
+ * collection pauses. Tables mapped from the same file share their memory through the page cache of the operating
+ * system, even across processes.
+ *
+ * <p>The gradient vectors are generated from a seed tile by tile directly into the buffer, like the ones of
+ * {@link PerlinNoise#seeded(int, int, double, long)}, so they never occupy the Java heap. Since buffers are indexed
+ * by integers, a table including the header of a mapped file is limited to 2 GiB, i.e. about 134 million corners.
+ *
+ * <p>A table has the same {@linkplain #fingerprint() fingerprint} as an {@link ArrayGradientTable} with the same
+ * gradient vectors, so noises using either table are considered equal.
+ *
+ * @see PerlinNoise#offHeap(int, int, double, long)
+ * @see PerlinNoise#mapped(Path, int, int, double, long)
+ */
+public class BufferGradientTable implements GradientTable {
+
+    /**
+     * The magic number at the start of a mapped file.
+     */
+    private static final int MAGIC = 0x48313348;
+
+    /**
+     * The number of bytes of the header of a mapped file: the magic number, the width, the height, a reserved integer,
+     * the seed and the fingerprint of the gradient vectors.
+     */
+    private static final int HEADER_BYTES = 4 * Integer.BYTES + Long.BYTES + Long.BYTES;
+
+    /**
+     * The byte order of the components in a mapped file.
+     */
+    private static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    /**
+     * The number of lattice corners per row.
+     */
+    private final int width;
+
+    /**
+     * The number of lattice rows.
+     */
+    private final int height;
+
+    /**
+     * The interleaved x and y components of the gradient vectors.
+     */
+    private final DoubleBuffer components;
+
+    /**
+     * The seed from which the gradient vectors were generated, which is only known for mapped tables.
+     */
+    private long seed;
+
+    /**
+     * The fingerprint of the gradient vectors, or 0 if it has not been computed yet.
+     */
+    private long fingerprint;
+
+    /**
+     * Constructs a gradient table with the specified lattice dimension and gradient components. The buffer is not
+     * copied and must not be modified afterwards.
+     *
+     * @param width      the number of lattice corners per row
+     * @param height     the number of lattice rows
+     * @param components the interleaved x and y components of the gradient vectors
+     * @throws IllegalArgumentException if the number of components does not match the lattice dimension
+     */
+    public BufferGradientTable(int width, int height, DoubleBuffer components) {
+        if (components.limit() != width * height * 2) {
+            throw new IllegalArgumentException("Expected %d components, but got %d"
+                .formatted(width * height * 2, components.limit()));
+        }
+        this.width = width;
+        this.height = height;
+        this.components = components;
+    }
+
+    /**
+     * Generates the gradient vectors of a lattice with the specified dimension from the specified seed directly into
+     * a direct buffer, so the gradient vectors never occupy the Java heap. The gradient vectors are the same as the
+     * ones of {@link PerlinNoise#seeded(int, int, double, long)}.
+     *
+     * @param width  the number of lattice corners per row
+     * @param height the number of lattice rows
+     * @param seed   the seed used to generate the gradient vectors
+     * @return a gradient table whose gradient vectors are stored in a direct buffer
+     * @throws IllegalArgumentException if the width or height is negative or the table exceeds the 2 GiB limit of a
+     *                                  buffer
+     */
+    public static BufferGradientTable allocate(int width, int height, long seed) {
+        int length = checkLength(width, height, 0);
+        DoubleBuffer components = ByteBuffer.allocateDirect(Double.BYTES * length)
+            .order(ByteOrder.nativeOrder())
+            .asDoubleBuffer();
+        GradientTiles.generate(width, height, seed, components);
+        return new BufferGradientTable(width, height, components);
+    }
+
+    /**
+     * Maps the gradient table stored in the specified file read-only. If the file does not exist or stores the
+     * gradient vectors of another dimension or seed, the gradient vectors are generated directly into the mapped file
+     * first, so they never occupy the Java heap. The file is replaced atomically, so processes mapping it concurrently
+     * never see a partially written table. The gradient vectors are the same as the ones of
+     * {@link #allocate(int, int, long)}.
+     *
+     * @param file   the file which stores the gradient table
+     * @param width  the number of lattice corners per row
+     * @param height the number of lattice rows
+     * @param seed   the seed used to generate the gradient vectors
+     * @return a gradient table with the specified gradient vectors mapped from the specified file
+     * @throws IllegalArgumentException if the width or height is negative or the file would exceed the 2 GiB limit
+     *                                  of a mapping
+     * @throws IOException              if the file cannot be read or written
+     */
+    public static BufferGradientTable map(Path file, int width, int height, long seed) throws IOException {
+        int length = checkLength(width, height, HEADER_BYTES);
+        if (Files.exists(file)) {
+            try {
+                BufferGradientTable mapped = map(file);
+                if (mapped.width == width && mapped.height == height && mapped.seed == seed) {
+                    return mapped;
+                }
+            } catch (IOException e) {
+                // Not a gradient table, which is replaced below
+            }
+        }
+        long size = HEADER_BYTES + (long) Double.BYTES * length;
+        Path temporary = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                DoubleBuffer components = buffer.slice(HEADER_BYTES, (int) (size - HEADER_BYTES))
+                    .order(ORDER)
+                    .asDoubleBuffer();
+                GradientTiles.generate(width, height, seed, components);
+                BufferGradientTable table = new BufferGradientTable(width, height, components);
+                buffer.order(ORDER)
+                    .putInt(MAGIC)
+                    .putInt(width)
+                    .putInt(height)
+                    .putInt(0)
+                    .putLong(seed)
+                    .putLong(table.fingerprint());
+                buffer.force();
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        return map(file);
+    }
+
+    /**
+     * Maps the gradient table stored in the specified file read-only.
+     *
+     * @param file the file which stores the gradient table
+     * @return the gradient table mapped from the specified file
+     * @throws IOException if the file cannot be read or does not store a gradient table
+     */
+    public static BufferGradientTable map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Not a gradient table: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(ORDER);
+            int magic = buffer.getInt();
+            int width = buffer.getInt();
+            int height = buffer.getInt();
+            buffer.getInt();
+            long seed = buffer.getLong();
+            long fingerprint = buffer.getLong();
+            if (magic != MAGIC || width < 0 || height < 0
+                || HEADER_BYTES + 2L * Double.BYTES * width * height != size) {
+                throw new IOException("Not a gradient table: " + file);
+            }
+            BufferGradientTable table = new BufferGradientTable(width, height,
+                buffer.slice().order(ORDER).asDoubleBuffer());
+            table.seed = seed;
+            table.fingerprint = fingerprint;
+            return table;
+        }
+    }
+
+    /**
+     * Returns the number of components of a gradient table with the specified dimension and checks that the table and
+     * the specified number of additional bytes fit into a buffer, which is limited to 2 GiB.
+     *
+     * @param width  the number of lattice corners per row
+     * @param height the number of lattice rows
+     * @param extra  the number of additional bytes stored in the buffer
+     * @return the number of components of a gradient table with the specified dimension
+     * @throws IllegalArgumentException if the width or height is negative or the buffer would exceed 2 GiB
+     */
+    private static int checkLength(int width, int height, int extra) {
+        if (width < 0 || height < 0) {
+            throw new IllegalArgumentException("Width and height cannot be negative");
+        }
+        long size = extra + 2L * Double.BYTES * width * height;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                "A gradient table of %d x %d corners needs %d bytes, but buffers are limited to 2 GiB"
+                    .formatted(width, height, size)
+            );
+        }
+        return width * height * 2;
+    }
+
+    @Override
+    public int index(int x, int y) {
+        return width * y + x;
+    }
+
+    @Override
+    public double getX(int index) {
+        return components.get(2 * index);
+    }
+
+    @Override
+    public double getY(int index) {
+        return components.get(2 * index + 1);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The fingerprint is computed from all gradient vectors on first access and cached afterwards. Mapped tables
+     * read it from the header of the file.
+     */
+    @Override
+    public long fingerprint() {
+        long fingerprint = this.fingerprint;
+        if (fingerprint == 0) {
+            fingerprint = Fingerprints.combine(Fingerprints.combine(Fingerprints.of(components), width), height);
+            // 0 marks a missing fingerprint, as in ArrayGradientTable
+            fingerprint = fingerprint == 0 ? 1 : fingerprint;
+            this.fingerprint = fingerprint;
+        }
+        return fingerprint;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The components are stored outside the Java heap, but still occupy the memory of the process.
+     */
+    @Override
+    public long retainedSize() {
+        return (long) Double.BYTES * components.limit();
+    }
+
+    /**
+     * Returns the number of lattice corners per row.
+     *
+     * @return the number of lattice corners per row
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the number of lattice rows.
+     *
+     * @return the number of lattice rows
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        BufferGradientTable that = (BufferGradientTable) o;
+        return width == that.width && height == that.height && components.equals(that.components);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(fingerprint());
+    }
+}
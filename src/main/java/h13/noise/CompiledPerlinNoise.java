@@ -0,0 +1,492 @@
+package h13.noise;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * A Perlin noise which evaluates a chain of a {@link SimplePerlinNoise} or {@link ImprovedPerlinNoise}, an optional
+ * {@link FractalPerlinNoise} and an optional {@link NormalizedPerlinNoise} in one specialized evaluator.
+ *
+ * <p>Evaluating the chain through its objects dispatches every octave of every sample through the
+ * {@link PerlinNoise} interface. This evaluator instead reads the gradient table, the permutation array and the octave
+ * parameters into local variables once per evaluation and computes all octaves in a single loop, so the JIT compiler
+ * can inline and unroll it. The gradient table is also read through its concrete class if it is an
+ * {@link ArrayGradientTable} or a {@link PagedGradientTable}, so the table lookups of these tables are not dispatched
+ * through the {@link GradientTable} interface, which has many implementations.
+ *
+ * <p>Regions are evaluated row by row: every octave of a row is computed by the {@link RowKernel} of the base noise,
+ * which loads the gradient vectors once per lattice cell, accumulated and normalized while the row is still in the
+ * cache, instead of streaming the whole region once per octave and once more for the normalization. The octave
+ * frequencies and amplitudes are computed once per region, and so are the columns of every octave. If the fractal noise
+ * caches its octave layers, the cached layers are combined row by row in the same way.
+ *
+ * <p>The parameters of the chain are read on every evaluation, so changes to the underlying objects are reflected.
+ * The results are identical to the ones of the chain.
+ *
+ * @see PerlinNoise#compile(PerlinNoise)
+ */
+public class CompiledPerlinNoise extends DelegatePerlinNoise implements PerlinNoise {
+
+    /**
+     * The reusable per-thread buffers for the results of region evaluations.
+     */
+    private static final ThreadLocal<double[]> BUFFERS = ThreadLocal.withInitial(() -> new double[0]);
+
+    /**
+     * The reusable per-thread columns of the octaves of region evaluations.
+     */
+    private static final ThreadLocal<RowKernel.Row[]> ROWS = ThreadLocal.withInitial(() -> new RowKernel.Row[0]);
+
+    /**
+     * The noise which computes the base noise values of each octave.
+     */
+    private final SimplePerlinNoise base;
+
+    /**
+     * The fractal noise of the chain, or {@code null} if the chain computes a single octave.
+     */
+    private final @Nullable FractalPerlinNoise fractal;
+
+    /**
+     * Whether the noise values are normalized to the range [0, 1].
+     */
+    private final boolean normalized;
+
+    /**
+     * The gradient table of the base noise.
+     */
+    private final GradientTable gradients;
+
+    /**
+     * The gradient table of the base noise if it is an {@link ArrayGradientTable}, {@code null} otherwise.
+     */
+    private final @Nullable ArrayGradientTable arrayGradients;
+
+    /**
+     * The gradient table of the base noise if it is a {@link PagedGradientTable}, {@code null} otherwise.
+     */
+    private final @Nullable PagedGradientTable pagedGradients;
+
+    /**
+     * The permutation array of the base noise, or {@code null} if the base noise accesses the gradient table
+     * directly.
+     */
+    private final int @Nullable [] p;
+
+    /**
+     * Constructs a compiled Perlin noise for the specified chain.
+     *
+     * @param noise      the chain to evaluate
+     * @param base       the noise which computes the base noise values of each octave
+     * @param fractal    the fractal noise of the chain, or {@code null} if the chain computes a single octave
+     * @param normalized whether the noise values are normalized to the range [0, 1]
+     */
+    private CompiledPerlinNoise(
+        PerlinNoise noise,
+        SimplePerlinNoise base,
+        @Nullable FractalPerlinNoise fractal,
+        boolean normalized
+    ) {
+        super(noise);
+        this.base = base;
+        this.fractal = fractal;
+        this.normalized = normalized;
+        this.gradients = base.getGradientTable();
+        this.arrayGradients = gradients instanceof ArrayGradientTable array ? array : null;
+        this.pagedGradients = gradients instanceof PagedGradientTable paged ? paged : null;
+        this.p = base instanceof ImprovedPerlinNoise improved ? improved.getP() : null;
+    }
+
+    /**
+     * Compiles the specified Perlin noise into a specialized evaluator if it is a chain of a
+     * {@link SimplePerlinNoise} or {@link ImprovedPerlinNoise}, an optional {@link FractalPerlinNoise} and an optional
+     * {@link NormalizedPerlinNoise}. Subclasses of these noises are not compiled since they may change the evaluation.
+     *
+     * @param noise the Perlin noise to compile
+     * @return the compiled Perlin noise, or the specified Perlin noise if it cannot be compiled
+     */
+    static PerlinNoise compile(PerlinNoise noise) {
+        PerlinNoise current = noise;
+        boolean normalized = false;
+        if (current.getClass() == NormalizedPerlinNoise.class) {
+            normalized = true;
+            current = ((NormalizedPerlinNoise) current).delegate;
+        }
+        FractalPerlinNoise fractal = null;
+        if (current.getClass() == FractalPerlinNoise.class) {
+            fractal = (FractalPerlinNoise) current;
+            current = fractal.delegate;
+        }
+        if (current.getClass() != SimplePerlinNoise.class && current.getClass() != ImprovedPerlinNoise.class) {
+            return noise;
+        }
+        return new CompiledPerlinNoise(noise, (SimplePerlinNoise) current, fractal, normalized);
+    }
+
+    @Override
+    protected PerlinNoise withDelegate(PerlinNoise delegate) {
+        return compile(delegate);
+    }
+
+    @Override
+    public double compute(int x, int y) {
+        if (fractal != null) {
+            return compute((double) x, y);
+        }
+        double f = base.getFrequency();
+        double value = sample(x * f, y * f);
+        return normalized ? (value + 1) / 2 : value;
+    }
+
+    @Override
+    public double compute(double x, double y) {
+        double value;
+        if (fractal == null) {
+            value = sample(x, y);
+        } else {
+            final int octaves = fractal.getOctaves();
+            final double lacunarity = fractal.getLacunarity();
+            final double persistence = fractal.getPersistence();
+            double f = base.getFrequency();
+            double a = fractal.getAmplitude();
+            value = 0;
+            for (int i = 0; i < octaves; i++) {
+                value += sample(x * f, y * f) * a;
+                f *= lacunarity;
+                a *= persistence;
+            }
+        }
+        return normalized ? (value + 1) / 2 : value;
+    }
+
+    /**
+     * Computes the base noise value at the specified coordinates, which are already scaled by the frequency of the
+     * octave. This is the same computation as {@link SimplePerlinNoise#compute(double, double)} with the gradient
+     * lookup of the base noise inlined.
+     *
+     * @param x the x-coordinate in the noise domain (scaled by frequency)
+     * @param y the y-coordinate in the noise domain (scaled by frequency)
+     * @return the base noise value at the specified coordinates
+     */
+    private double sample(double x, double y) {
+        final int[] p = this.p;
+        int x0 = (int) Math.floor(x);
+        int y0 = (int) Math.floor(y);
+        int x1 = x0 + 1;
+        int y1 = y0 + 1;
+        double dx = x - x0;
+        double dy = y - y0;
+
+        int g00;
+        int g01;
+        int g10;
+        int g11;
+        if (p == null) {
+            g00 = index(x0, y0);
+            g01 = index(x0, y1);
+            g10 = index(x1, y0);
+            g11 = index(x1, y1);
+        } else {
+            int mask = ImprovedPerlinNoise.PERMUTATION_SIZE - 1;
+            int p0 = p[y0 & mask];
+            int p1 = p[y1 & mask];
+            g00 = p[(x0 + p0) & mask];
+            g01 = p[(x0 + p1) & mask];
+            g10 = p[(x1 + p0) & mask];
+            g11 = p[(x1 + p1) & mask];
+        }
+
+        double s00 = dot(g00, dx, dy);
+        double s01 = dot(g01, dx, dy - 1);
+        double s10 = dot(g10, dx - 1, dy);
+        double s11 = dot(g11, dx - 1, dy - 1);
+
+        double fdx = RowKernel.fade(dx);
+        double fdy = RowKernel.fade(dy);
+        double lx0 = s00 + fdx * (s10 - s00);
+        double lx1 = s01 + fdx * (s11 - s01);
+        return lx0 + fdy * (lx1 - lx0);
+    }
+
+    /**
+     * Returns the slot of the gradient table associated with the specified lattice corner. The common tables are
+     * called through their class, so the calls can be inlined.
+     *
+     * @param x the x coordinate of the lattice corner
+     * @param y the y coordinate of the lattice corner
+     * @return the slot of the gradient table associated with the specified lattice corner
+     */
+    private int index(int x, int y) {
+        if (arrayGradients != null) {
+            return arrayGradients.index(x, y);
+        }
+        if (pagedGradients != null) {
+            return pagedGradients.index(x, y);
+        }
+        return gradients.index(x, y);
+    }
+
+    /**
+     * Computes the dot product of the gradient vector stored in the specified slot and the given offset vector. The
+     * common tables are called through their class, so the calls can be inlined.
+     *
+     * @param index the slot of the gradient vector
+     * @param dx    the x component of the offset vector
+     * @param dy    the y component of the offset vector
+     * @return the dot product of the gradient vector and the offset vector
+     */
+    private double dot(int index, double dx, double dy) {
+        if (arrayGradients != null) {
+            return arrayGradients.dot(index, dx, dy);
+        }
+        if (pagedGradients != null) {
+            return pagedGradients.dot(index, dx, dy);
+        }
+        return gradients.dot(index, dx, dy);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The values are computed row by row, see the description of this class. They are the same as the ones of
+     * {@link FractalPerlinNoise#compute(int, int, int, int, double[], int, int)}, including the skipped octaves.
+     */
+    @Override
+    public void compute(int x, int y, int w, int h, double[] out, int offset, int stride) {
+        if (w - x <= 0 || h - y <= 0) {
+            return;
+        }
+        if (fractal == null) {
+            computeBase(x, y, w, h, out, offset, stride);
+        } else if (fractal.cachesLayers()) {
+            computeLayers(fractal, x, y, w, h, out, offset, stride);
+        } else {
+            computeOctaves(fractal, x, y, w, h, out, offset, stride);
+        }
+    }
+
+    /**
+     * Computes the values of a chain without a fractal noise row by row.
+     *
+     * @param x      the x-coordinate of the starting point of the noise domain
+     * @param y      the y-coordinate of the starting point of the noise domain
+     * @param w      the width of the noise domain
+     * @param h      the height of the noise domain
+     * @param out    the buffer to store the computed noise values in
+     * @param offset the index of the buffer at which the first value is stored
+     * @param stride the distance between the first values of two consecutive rows in the buffer
+     */
+    private void computeBase(int x, int y, int w, int h, double[] out, int offset, int stride) {
+        final SimplePerlinNoise base = this.base;
+        final boolean normalized = this.normalized;
+        final int columns = w - x;
+        final double f = base.getFrequency();
+        RowKernel kernel = RowKernel.getInstance();
+        RowKernel.Row row = rows(1)[0].setColumns(x, w, f);
+        for (int yi = y; yi < h; yi++) {
+            int index = offset + (yi - y) * stride;
+            base.computeRow(kernel, row, yi * f, columns, out, index);
+            if (normalized) {
+                normalize(out, index, columns);
+            }
+        }
+    }
+
+    /**
+     * Computes the values of a chain with a fractal noise without a layer cache row by row, computing all octaves of
+     * a row before the next row.
+     *
+     * @param fractal the fractal noise of the chain
+     * @param x       the x-coordinate of the starting point of the noise domain
+     * @param y       the y-coordinate of the starting point of the noise domain
+     * @param w       the width of the noise domain
+     * @param h       the height of the noise domain
+     * @param out     the buffer to store the computed noise values in
+     * @param offset  the index of the buffer at which the first value is stored
+     * @param stride  the distance between the first values of two consecutive rows in the buffer
+     */
+    private void computeOctaves(
+        FractalPerlinNoise fractal,
+        int x,
+        int y,
+        int w,
+        int h,
+        double[] out,
+        int offset,
+        int stride
+    ) {
+        final SimplePerlinNoise base = this.base;
+        final boolean normalized = this.normalized;
+        final int columns = w - x;
+        final int evaluated = fractal.getEvaluatedOctaves();
+        final double lacunarity = fractal.getLacunarity();
+        final double persistence = fractal.getPersistence();
+
+        // The resolved octaves with their frequency, amplitude and columns, in the order of the fractal noise
+        double[] frequencies = new double[evaluated];
+        double[] amplitudes = new double[evaluated];
+        RowKernel.Row[] rows = rows(evaluated);
+        int octaves = 0;
+        double f = base.getFrequency();
+        double a = fractal.getAmplitude();
+        for (int i = 0; i < evaluated; i++) {
+            if (fractal.isResolved(f)) {
+                frequencies[octaves] = f;
+                amplitudes[octaves] = a;
+                rows[octaves].setColumns(x, w, f);
+                octaves++;
+            }
+            f *= lacunarity;
+            a *= persistence;
+        }
+
+        RowKernel kernel = RowKernel.getInstance();
+        for (int yi = y; yi < h; yi++) {
+            int index = offset + (yi - y) * stride;
+            for (int xi = 0; xi < columns; xi++) {
+                out[index + xi] = 0;
+            }
+            for (int i = 0; i < octaves; i++) {
+                RowKernel.Row row = rows[i];
+                double[] values = row.values;
+                double amplitude = amplitudes[i];
+                base.computeRow(kernel, row, yi * frequencies[i], columns, values, 0);
+                for (int xi = 0; xi < columns; xi++) {
+                    out[index + xi] += values[xi] * amplitude;
+                }
+            }
+            if (normalized) {
+                normalize(out, index, columns);
+            }
+        }
+    }
+
+    /**
+     * Computes the values of a chain with a fractal noise which caches its octave layers by combining the layers row
+     * by row.
+     *
+     * @param fractal the fractal noise of the chain
+     * @param x       the x-coordinate of the starting point of the noise domain
+     * @param y       the y-coordinate of the starting point of the noise domain
+     * @param w       the width of the noise domain
+     * @param h       the height of the noise domain
+     * @param out     the buffer to store the computed noise values in
+     * @param offset  the index of the buffer at which the first value is stored
+     * @param stride  the distance between the first values of two consecutive rows in the buffer
+     */
+    private void computeLayers(
+        FractalPerlinNoise fractal,
+        int x,
+        int y,
+        int w,
+        int h,
+        double[] out,
+        int offset,
+        int stride
+    ) {
+        final boolean normalized = this.normalized;
+        final int columns = w - x;
+        final int evaluated = fractal.getEvaluatedOctaves();
+        final double lacunarity = fractal.getLacunarity();
+        final double persistence = fractal.getPersistence();
+
+        // The layers of the resolved octaves with their amplitude, in the order of the fractal noise
+        double[][] layers = new double[evaluated][];
+        double[] amplitudes = new double[evaluated];
+        int octaves = 0;
+        double f = base.getFrequency();
+        double a = fractal.getAmplitude();
+        for (int i = 0; i < evaluated; i++) {
+            if (fractal.isResolved(f)) {
+                layers[octaves] = fractal.getLayer(f, x, y, w, h);
+                amplitudes[octaves] = a;
+                octaves++;
+            }
+            f *= lacunarity;
+            a *= persistence;
+        }
+
+        for (int yi = 0; yi < h - y; yi++) {
+            int index = offset + yi * stride;
+            int layerIndex = yi * columns;
+            for (int xi = 0; xi < columns; xi++) {
+                out[index + xi] = 0;
+            }
+            for (int i = 0; i < octaves; i++) {
+                double[] layer = layers[i];
+                double amplitude = amplitudes[i];
+                for (int xi = 0; xi < columns; xi++) {
+                    out[index + xi] += layer[layerIndex + xi] * amplitude;
+                }
+            }
+            if (normalized) {
+                normalize(out, index, columns);
+            }
+        }
+    }
+
+    /**
+     * Normalizes the specified values from the range [-1, 1] to the range [0, 1] in place.
+     *
+     * @param values the buffer of the values
+     * @param offset the index of the first value
+     * @param length the number of values
+     */
+    private static void normalize(double[] values, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            values[i] = (values[i] + 1) / 2;
+        }
+    }
+
+    @Override
+    public void compute(int x, int y, int w, int h, float[] out, int offset, int stride) {
+        int columns = w - x;
+        int rows = h - y;
+        if (columns <= 0 || rows <= 0) {
+            return;
+        }
+        double[] values = buffer(columns * rows);
+        compute(x, y, w, h, values, 0, columns);
+        for (int yi = 0; yi < rows; yi++) {
+            int index = offset + yi * stride;
+            for (int xi = 0; xi < columns; xi++) {
+                out[index + xi] = (float) values[yi * columns + xi];
+            }
+        }
+    }
+
+    /**
+     * Returns the per-thread columns of at least the specified number of octaves.
+     *
+     * @param octaves the minimum number of octaves
+     * @return the per-thread columns of the octaves
+     */
+    private static RowKernel.Row[] rows(int octaves) {
+        RowKernel.Row[] rows = ROWS.get();
+        if (rows.length < octaves) {
+            RowKernel.Row[] grown = Arrays.copyOf(rows, octaves);
+            for (int i = rows.length; i < octaves; i++) {
+                grown[i] = new RowKernel.Row();
+            }
+            rows = grown;
+            ROWS.set(rows);
+        }
+        return rows;
+    }
+
+    /**
+     * Returns the per-thread buffer with at least the specified size.
+     *
+     * @param size the minimum size of the buffer
+     * @return the per-thread buffer
+     */
+    private static double[] buffer(int size) {
+        double[] buffer = BUFFERS.get();
+        if (buffer.length < size) {
+            buffer = new double[size];
+            BUFFERS.set(buffer);
+        }
+        return buffer;
+    }
+}
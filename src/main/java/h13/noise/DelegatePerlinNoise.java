@@ -2,7 +2,6 @@ package h13.noise;
 
 import javafx.geometry.Point2D;
 
-import java.util.Objects;
 import java.util.Random;
 
 /**
@@ -71,6 +70,36 @@ public abstract class DelegatePerlinNoise implements PerlinNoise {
         delegate.setFrequency(frequency);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The underlying Perlin noise object is derived with the specified frequency and
+     * {@linkplain #withDelegate(PerlinNoise) wrapped} like this one.
+     */
+    @Override
+    public PerlinNoise withFrequency(double frequency) {
+        if (Double.compare(frequency, getFrequency()) == 0) {
+            return this;
+        }
+        return withDelegate(delegate.withFrequency(frequency));
+    }
+
+    /**
+     * Returns a Perlin noise object which is equal to this one except for the specified underlying Perlin noise
+     * object. This object is not modified.
+     *
+     * <p>The default implementation cannot wrap the specified Perlin noise object, since the state of an arbitrary
+     * subclass is unknown. Like {@link PerlinNoise#withFrequency(double)}, it returns a {@link ScaledPerlinNoise}
+     * which scales the coordinates of this object by the frequency of the specified Perlin noise object instead. The
+     * subclasses of this package override it.
+     *
+     * @param delegate the underlying Perlin noise object of the returned Perlin noise
+     * @return a Perlin noise object which wraps the specified Perlin noise object like this one
+     */
+    protected PerlinNoise withDelegate(PerlinNoise delegate) {
+        return new ScaledPerlinNoise(this, delegate.getFrequency());
+    }
+
     @Override
     public double fade(double t) {
         return delegate.fade(t);
@@ -81,6 +110,27 @@ public abstract class DelegatePerlinNoise implements PerlinNoise {
         return delegate.interpolate(x1, x2, alpha);
     }
 
+    @Override
+    public long retainedSize() {
+        return delegate.retainedSize();
+    }
+
+    @Override
+    public boolean hasFingerprint() {
+        return delegate.hasFingerprint();
+    }
+
+    @Override
+    public long fingerprint() {
+        return Fingerprints.combine(Fingerprints.of(getClass()), delegate.fingerprint());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Two Perlin noise objects are considered equal if they have the same class and
+     * {@linkplain #fingerprint() fingerprint}, which includes the fingerprint of the underlying Perlin noise object.
+     */
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -90,11 +140,11 @@ public abstract class DelegatePerlinNoise implements PerlinNoise {
             return false;
         }
         DelegatePerlinNoise that = (DelegatePerlinNoise) o;
-        return Objects.equals(delegate, that.delegate);
+        return fingerprint() == that.fingerprint();
     }
 
     @Override
     public int hashCode() {
-        return delegate.hashCode();
+        return Long.hashCode(fingerprint());
     }
 }
@@ -0,0 +1,125 @@
+package h13.noise;
+
+import java.nio.DoubleBuffer;
+
+/**
+ * Utility methods to derive 64-bit fingerprints from the inputs which determine a noise, so that noises can be
+ * compared and hashed in constant time.
+ *
+ * @see PerlinNoise#fingerprint()
+ */
+final class Fingerprints {
+
+    /**
+     * The golden ratio scaled to 64 bits, used to spread consecutive values.
+     */
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private Fingerprints() {
+    }
+
+    /**
+     * Mixes the bits of the specified value so that every input bit affects every output bit.
+     *
+     * @param value the value to mix
+     * @return the mixed value
+     */
+    static long mix(long value) {
+        // Finalizer of MurmurHash3, see https://github.com/aappleby/smhasher
+        long h = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+
+    /**
+     * Combines the specified fingerprint with the specified value.
+     *
+     * @param fingerprint the fingerprint to combine
+     * @param value       the value to combine the fingerprint with
+     * @return the combined fingerprint
+     */
+    static long combine(long fingerprint, long value) {
+        return mix(fingerprint * GOLDEN_RATIO + value);
+    }
+
+    /**
+     * Combines the specified fingerprint with the specified value.
+     *
+     * @param fingerprint the fingerprint to combine
+     * @param value       the value to combine the fingerprint with
+     * @return the combined fingerprint
+     */
+    static long combine(long fingerprint, double value) {
+        return combine(fingerprint, Double.doubleToLongBits(value));
+    }
+
+    /**
+     * Returns the fingerprint of the specified class, which is stable across runs.
+     *
+     * @param type the class to fingerprint
+     * @return the fingerprint of the specified class
+     */
+    static long of(Class<?> type) {
+        return mix(type.getName().hashCode());
+    }
+
+    /**
+     * Returns the fingerprint of the specified values.
+     *
+     * @param values the values to fingerprint
+     * @return the fingerprint of the specified values
+     */
+    static long of(int[] values) {
+        long fingerprint = values.length;
+        for (int value : values) {
+            fingerprint = fingerprint * GOLDEN_RATIO + value;
+        }
+        return mix(fingerprint);
+    }
+
+    /**
+     * Returns the fingerprint of the specified values.
+     *
+     * @param values the values to fingerprint
+     * @return the fingerprint of the specified values
+     */
+    static long of(double[] values) {
+        long fingerprint = values.length;
+        for (double value : values) {
+            fingerprint = fingerprint * GOLDEN_RATIO + Double.doubleToLongBits(value);
+        }
+        return mix(fingerprint);
+    }
+
+    /**
+     * Returns the fingerprint of the specified values.
+     *
+     * @param values the values to fingerprint
+     * @return the fingerprint of the specified values
+     */
+    static long of(byte[] values) {
+        long fingerprint = values.length;
+        for (byte value : values) {
+            fingerprint = fingerprint * GOLDEN_RATIO + value;
+        }
+        return mix(fingerprint);
+    }
+
+    /**
+     * Returns the fingerprint of the values of the specified buffer, which equals the fingerprint of an array with
+     * the same values.
+     *
+     * @param values the values to fingerprint
+     * @return the fingerprint of the specified values
+     */
+    static long of(DoubleBuffer values) {
+        long fingerprint = values.limit();
+        for (int i = 0; i < values.limit(); i++) {
+            fingerprint = fingerprint * GOLDEN_RATIO + Double.doubleToLongBits(values.get(i));
+        }
+        return mix(fingerprint);
+    }
+}
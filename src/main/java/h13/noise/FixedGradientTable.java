@@ -0,0 +1,79 @@
+package h13.noise;
+
+/**
+ * A gradient table which selects one of 8 fixed gradient vectors from the lowest 3 bits of the slot, as in Ken
+ * Perlin's reference implementation of the improved noise.
+ *
+ * <p>The gradient vectors are the 4 axis directions (1, 0), (-1, 0), (0, 1), (0, -1) and the 4 diagonals (1, 1),
+ * (-1, 1), (1, -1), (-1, -1). Their components are derived from the bits of the slot, so the table does not store
+ * any gradient vectors and requires no memory accesses. Combined with the permutation array of
+ * {@link ImprovedPerlinNoise}, the slot is the permuted hash of the lattice corner.
+ *
+ * @see PerlinNoise#improvedWithFixedGradients(PerlinNoise, int[])
+ */
+public class FixedGradientTable implements GradientTable {
+
+    /**
+     * The mask which selects the gradient vector from a slot.
+     */
+    private static final int MASK = 7;
+
+    @Override
+    public int index(int x, int y) {
+        // Spatial hash of the corner coordinates, see HashGradientTable
+        return x * 73856093 ^ y * 19349663;
+    }
+
+    /**
+     * Returns 1 if the gradient vector of the specified slot is a diagonal, 0 otherwise.
+     *
+     * @param index the slot of the gradient vector
+     * @return 1 if the gradient vector is a diagonal, 0 otherwise
+     */
+    private static int diagonal(int index) {
+        return 1 - ((index & MASK) >> 2);
+    }
+
+    @Override
+    public double getX(int index) {
+        // Computed without branches since the slots of neighbouring corners are random. Diagonals and the slots 4
+        // and 5 have an x component, whose sign is stored in the lowest bit
+        return (diagonal(index) | (1 - ((index >> 1) & 1))) * (1 - ((index & 1) << 1));
+    }
+
+    @Override
+    public double getY(int index) {
+        // Diagonals store the sign of the y component in the second bit, the slots 6 and 7 in the lowest bit
+        int diagonal = diagonal(index);
+        int second = (index >> 1) & 1;
+        return diagonal * (1 - (second << 1)) + (1 - diagonal) * second * (1 - ((index & 1) << 1));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The components are computed without branches like in {@link #getX(int)} and {@link #getY(int)}. Selecting
+     * the sum or difference of the offset components with a branch on the slot, like the {@code grad} function of the
+     * reference implementation, is slower here, since the slots of neighbouring corners are random and the branch is
+     * mispredicted.
+     */
+    @Override
+    public double dot(int index, double dx, double dy) {
+        return getX(index) * dx + getY(index) * dy;
+    }
+
+    @Override
+    public long fingerprint() {
+        return Fingerprints.of(FixedGradientTable.class);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o != null && getClass() == o.getClass();
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(fingerprint());
+    }
+}
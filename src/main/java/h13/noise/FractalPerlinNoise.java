@@ -1,9 +1,9 @@
 package h13.noise;
 
+import h13.util.Cache;
+import org.jetbrains.annotations.Nullable;
 import org.tudalgo.algoutils.student.annotation.StudentImplementationRequired;
 
-import java.util.Objects;
-
 /**
  * A fractal implementation of the Perlin noise algorithm that generates coherent noise values based on grid
  * coordinates. This class adds fractal behavior to the underlying Perlin noise by combining multiple octaves of noise
@@ -26,6 +26,11 @@ public class FractalPerlinNoise extends DelegatePerlinNoise implements PerlinNoi
      */
     private static final double DEFAULT_AMPLITUDE = 1.0;
 
+    /**
+     * The reusable per-thread buffers for the octave layers and results of region evaluations.
+     */
+    private static final ThreadLocal<double[][]> BUFFERS = ThreadLocal.withInitial(() -> new double[2][0]);
+
     /**
      * The amplitude of the noise, controlling the range of values for each octave.
      */
@@ -46,6 +51,23 @@ public class FractalPerlinNoise extends DelegatePerlinNoise implements PerlinNoi
      */
     private double lacunarity;
 
+    /**
+     * The distance between two samples in the noise domain. Octaves whose lattice cells are smaller than this
+     * distance are skipped by region evaluations, or none if the distance is 0.
+     */
+    private double samplingScale;
+
+    /**
+     * The sum of the absolute amplitudes of the trailing octaves below which they are skipped by region evaluations,
+     * or 0 if no octaves are skipped.
+     */
+    private double amplitudeEpsilon;
+
+    /**
+     * The cache for the octave layers of region evaluations, or {@code null} if the layers are not cached.
+     */
+    private @Nullable Cache<Layer, double[]> layerCache;
+
     /**
      * Constructs a fractal Perlin noise object with the specified underlying Perlin noise object and fractal
      * parameters.
@@ -89,6 +111,27 @@ public class FractalPerlinNoise extends DelegatePerlinNoise implements PerlinNoi
         this.persistence = persistence;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The returned fractal Perlin noise has the same octave parameters, culling settings and layer cache as this
+     * one.
+     */
+    @Override
+    protected FractalPerlinNoise withDelegate(PerlinNoise delegate) {
+        FractalPerlinNoise noise = new FractalPerlinNoise(
+            delegate,
+            amplitude,
+            octaves,
+            lacunarity,
+            persistence
+        );
+        noise.samplingScale = samplingScale;
+        noise.amplitudeEpsilon = amplitudeEpsilon;
+        noise.layerCache = layerCache;
+        return noise;
+    }
+
     @Override
     public double compute(int x, int y) {
         return compute((double) x, y);
@@ -124,27 +167,196 @@ public class FractalPerlinNoise extends DelegatePerlinNoise implements PerlinNoi
         return totalNoise;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The octaves are evaluated layer by layer for the whole area and accumulated into the buffer. If a
+     * {@linkplain #setLayerCache(Cache) layer cache} is set, the layers are looked up in the cache first, so changing
+     * only the amplitude or persistence recombines the cached layers instead of evaluating the noise again.
+     *
+     * <p>Unlike {@link #compute(double, double)}, region evaluations skip the octaves which are not
+     * {@linkplain #setSamplingScale(double) resolved} or whose {@linkplain #setAmplitudeEpsilon(double) contribution is
+     * negligible}. Both are disabled by default, in which case the values are the same.
+     */
+    @Override
+    public void compute(int x, int y, int w, int h, double[] out, int offset, int stride) {
+        int columns = w - x;
+        int rows = h - y;
+        if (columns <= 0 || rows <= 0) {
+            return;
+        }
+        for (int yi = 0; yi < rows; yi++) {
+            int index = offset + yi * stride;
+            for (int xi = 0; xi < columns; xi++) {
+                out[index + xi] = 0;
+            }
+        }
+        double f = getFrequency();
+        double a = amplitude;
+        int evaluated = getEvaluatedOctaves();
+        for (int i = 0; i < evaluated; i++) {
+            if (isResolved(f)) {
+                double[] layer = getLayer(f, x, y, w, h);
+                for (int yi = 0; yi < rows; yi++) {
+                    int index = offset + yi * stride;
+                    int layerIndex = yi * columns;
+                    for (int xi = 0; xi < columns; xi++) {
+                        out[index + xi] += layer[layerIndex + xi] * a;
+                    }
+                }
+            }
+            f *= lacunarity;
+            a *= persistence;
+        }
+    }
+
     @Override
-    public boolean equals(Object o) {
-        if (this == o) {
-            return true;
+    public void compute(int x, int y, int w, int h, float[] out, int offset, int stride) {
+        int columns = w - x;
+        int rows = h - y;
+        if (columns <= 0 || rows <= 0) {
+            return;
+        }
+        double[] values = buffer(1, columns * rows);
+        compute(x, y, w, h, values, 0, columns);
+        for (int yi = 0; yi < rows; yi++) {
+            int index = offset + yi * stride;
+            for (int xi = 0; xi < columns; xi++) {
+                out[index + xi] = (float) values[yi * columns + xi];
+            }
+        }
+    }
+
+    /**
+     * Returns whether an octave with the specified frequency is resolved by the samples of a region evaluation. An
+     * octave is not resolved if its lattice cells are smaller than the {@linkplain #getSamplingScale() sampling scale},
+     * since it would only add aliasing.
+     *
+     * @param frequency the frequency of the octave
+     * @return {@code true} if the octave is resolved by the samples
+     */
+    boolean isResolved(double frequency) {
+        return frequency * samplingScale <= 1;
+    }
+
+    /**
+     * Returns the number of leading octaves which are evaluated by region evaluations. The trailing octaves are
+     * skipped if the sum of their absolute amplitudes is below the {@linkplain #getAmplitudeEpsilon() amplitude
+     * epsilon}, so the skipped contribution is below the epsilon times the largest magnitude of the underlying noise
+     * values.
+     *
+     * @return the number of leading octaves which are evaluated by region evaluations
+     */
+    int getEvaluatedOctaves() {
+        if (!(amplitudeEpsilon > 0)) {
+            return octaves;
+        }
+        // The absolute amplitudes of the octaves from the current one to the last one
+        double tail = 0;
+        double a = amplitude;
+        for (int i = 0; i < octaves; i++) {
+            tail += Math.abs(a);
+            a *= persistence;
+        }
+        a = amplitude;
+        for (int i = 0; i < octaves; i++) {
+            if (tail < amplitudeEpsilon) {
+                return i;
+            }
+            tail -= Math.abs(a);
+            a *= persistence;
+        }
+        return octaves;
+    }
+
+    /**
+     * Returns whether the layers of region evaluations are taken from the layer cache, which is the case if a layer
+     * cache is set and the underlying Perlin noise has a {@linkplain PerlinNoise#hasFingerprint() fingerprint}. Only
+     * then are the returned layers distinct arrays which can be held at the same time.
+     *
+     * @return {@code true} if the layers of region evaluations are taken from the layer cache
+     */
+    boolean cachesLayers() {
+        return layerCache != null && delegate.hasFingerprint();
+    }
+
+    /**
+     * Returns the values of the underlying Perlin noise for the specified area at the specified octave frequency,
+     * stored row by row. The layer is taken from the layer cache if present, otherwise it is computed and added to the
+     * layer cache. Without a layer cache, the returned array is a per-thread buffer which is reused by the next call.
+     *
+     * @param frequency the frequency of the octave
+     * @param x         the x-coordinate of the starting point of the noise domain
+     * @param y         the y-coordinate of the starting point of the noise domain
+     * @param w         the width of the noise domain
+     * @param h         the height of the noise domain
+     * @return the values of the underlying Perlin noise for the specified area at the specified octave frequency
+     */
+    double[] getLayer(double frequency, int x, int y, int w, int h) {
+        Cache<Layer, double[]> cache = layerCache;
+        int size = (w - x) * (h - y);
+        if (cache == null || !delegate.hasFingerprint()) {
+            return computeLayer(frequency, x, y, w, h, buffer(0, size));
+        }
+        return cache.computeIfAbsent(
+            new Layer(delegate.fingerprint(), frequency, x, y, w, h),
+            key -> computeLayer(frequency, x, y, w, h, new double[size])
+        );
+    }
+
+    /**
+     * Computes the values of the underlying Perlin noise for the specified area at the specified octave frequency
+     * and stores them row by row in the given buffer. Simple and improved Perlin noises are evaluated with their
+     * region evaluator, other noises sample by sample.
+     *
+     * @param frequency the frequency of the octave
+     * @param x         the x-coordinate of the starting point of the noise domain
+     * @param y         the y-coordinate of the starting point of the noise domain
+     * @param w         the width of the noise domain
+     * @param h         the height of the noise domain
+     * @param layer     the buffer to store the values in
+     * @return the given buffer
+     */
+    private double[] computeLayer(double frequency, int x, int y, int w, int h, double[] layer) {
+        Class<?> type = delegate.getClass();
+        if (type == SimplePerlinNoise.class || type == ImprovedPerlinNoise.class) {
+            ((SimplePerlinNoise) delegate).compute(frequency, x, y, w, h, layer, 0, w - x);
+            return layer;
         }
-        if (o == null || getClass() != o.getClass()) {
-            return false;
+        int columns = w - x;
+        for (int yi = y; yi < h; yi++) {
+            int index = (yi - y) * columns - x;
+            for (int xi = x; xi < w; xi++) {
+                layer[index + xi] = delegate.compute(xi * frequency, yi * frequency);
+            }
         }
-        if (!super.equals(o)) {
-            return false;
+        return layer;
+    }
+
+    /**
+     * Returns the per-thread buffer in the specified slot with at least the specified size.
+     *
+     * @param slot the slot of the buffer
+     * @param size the minimum size of the buffer
+     * @return the per-thread buffer in the specified slot
+     */
+    private static double[] buffer(int slot, int size) {
+        double[][] buffers = BUFFERS.get();
+        if (buffers[slot].length < size) {
+            buffers[slot] = new double[size];
         }
-        FractalPerlinNoise that = (FractalPerlinNoise) o;
-        return Double.compare(amplitude, that.amplitude) == 0
-            && octaves == that.octaves
-            && Double.compare(lacunarity, that.lacunarity) == 0
-            && Double.compare(persistence, that.persistence) == 0;
+        return buffers[slot];
     }
 
     @Override
-    public int hashCode() {
-        return Objects.hash(super.hashCode(), getAmplitude(), getOctaves(), getPersistence(), getLacunarity());
+    public long fingerprint() {
+        long fingerprint = super.fingerprint();
+        fingerprint = Fingerprints.combine(fingerprint, amplitude);
+        fingerprint = Fingerprints.combine(fingerprint, octaves);
+        fingerprint = Fingerprints.combine(fingerprint, lacunarity);
+        fingerprint = Fingerprints.combine(fingerprint, persistence);
+        fingerprint = Fingerprints.combine(fingerprint, samplingScale);
+        return Fingerprints.combine(fingerprint, amplitudeEpsilon);
     }
 
     /**
@@ -218,5 +430,92 @@ public class FractalPerlinNoise extends DelegatePerlinNoise implements PerlinNoi
     public void setPersistence(double persistence) {
         this.persistence = persistence;
     }
+
+    /**
+     * Returns the distance between two samples in the noise domain. Octaves whose lattice cells are smaller than this
+     * distance, i.e. whose frequency is greater than its reciprocal, are skipped by region evaluations.
+     *
+     * @return the distance between two samples, or 0 if no octaves are skipped because of their frequency
+     */
+    public double getSamplingScale() {
+        return samplingScale;
+    }
+
+    /**
+     * Sets the distance between two samples in the noise domain. Octaves whose lattice cells are smaller than this
+     * distance, i.e. whose frequency is greater than its reciprocal, are skipped by region evaluations. For example, a
+     * scale of 1 skips all octaves with a wavelength below one sample, and a scale of 4 is suitable for previews which
+     * only sample every fourth coordinate.
+     *
+     * @param samplingScale the distance between two samples, or 0 if no octaves should be skipped because of their
+     *                      frequency
+     * @throws IllegalArgumentException if the sampling scale is negative
+     */
+    public void setSamplingScale(double samplingScale) {
+        if (!(samplingScale >= 0)) {
+            throw new IllegalArgumentException("Sampling scale must not be negative");
+        }
+        this.samplingScale = samplingScale;
+    }
+
+    /**
+     * Returns the amplitude below which octaves are skipped by region evaluations.
+     *
+     * @return the amplitude below which octaves are skipped, or 0 if no octaves are skipped because of their amplitude
+     */
+    public double getAmplitudeEpsilon() {
+        return amplitudeEpsilon;
+    }
+
+    /**
+     * Sets the amplitude below which octaves are skipped by region evaluations, since their contribution would not be
+     * visible. The trailing octaves are only skipped together if the sum of their absolute amplitudes is below the
+     * epsilon, see {@link #getEvaluatedOctaves()}.
+     *
+     * @param amplitudeEpsilon the amplitude below which octaves are skipped, or 0 if no octaves should be skipped
+     *                         because of their amplitude
+     * @throws IllegalArgumentException if the amplitude epsilon is negative
+     */
+    public void setAmplitudeEpsilon(double amplitudeEpsilon) {
+        if (!(amplitudeEpsilon >= 0)) {
+            throw new IllegalArgumentException("Amplitude epsilon must not be negative");
+        }
+        this.amplitudeEpsilon = amplitudeEpsilon;
+    }
+
+    /**
+     * Returns the cache for the octave layers of region evaluations.
+     *
+     * @return the cache for the octave layers, or {@code null} if the layers are not cached
+     */
+    public @Nullable Cache<Layer, double[]> getLayerCache() {
+        return layerCache;
+    }
+
+    /**
+     * Sets the cache for the octave layers of region evaluations. The layers only depend on the underlying Perlin
+     * noise, the frequency of the octave and the area, so the cache can be shared between fractal Perlin noises with
+     * different amplitudes and persistences. Since regions may be evaluated in parallel, e.g. by a
+     * {@link NoiseScheduler}, the cache must be thread-safe.
+     *
+     * @param layerCache the cache for the octave layers, or {@code null} if the layers should not be cached
+     */
+    public void setLayerCache(@Nullable Cache<Layer, double[]> layerCache) {
+        this.layerCache = layerCache;
+    }
+
+    /**
+     * The key of an octave layer, which consists of the values of the underlying Perlin noise for an area at the
+     * frequency of the octave.
+     *
+     * @param noise     the fingerprint of the underlying Perlin noise
+     * @param frequency the frequency of the octave
+     * @param x         the x-coordinate of the starting point of the area
+     * @param y         the y-coordinate of the starting point of the area
+     * @param w         the width of the area
+     * @param h         the height of the area
+     */
+    public record Layer(long noise, double frequency, int x, int y, int w, int h) {
+    }
 }
 
@@ -0,0 +1,252 @@
+package h13.noise;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An unbounded lattice of gradient vectors which are generated from a seed page by page on first access, like the
+ * tiles of {@link GradientTiles}.
+ *
+ * <p>The lattice has no dimension. Gradient tables of any dimension are {@linkplain #view(int, int) views} of the
+ * lattice which share its pages, so noises of different sizes with the same seed do not generate a page twice while
+ * it is held by the lattice. The lattices are {@linkplain #shared(long) shared} per seed as long as any view of them is
+ * reachable.
+ *
+ * <p>The lattice only references its pages weakly, so a page is kept exactly as long as any view holds it and is
+ * never stored twice. Panning over the unbounded lattice therefore does not grow the memory beyond the pages of the
+ * reachable views. A page which is no longer held by any view is generated again on its next access with the same
+ * gradient vectors.
+ *
+ * @see PagedGradientTable
+ */
+public final class GradientLattice {
+
+    /**
+     * The number of interleaved components of a page.
+     */
+    static final int PAGE_LENGTH = 2 * GradientTiles.TILE_SIZE * GradientTiles.TILE_SIZE;
+
+    /**
+     * The lattices which are currently reachable, identified by their seed.
+     */
+    private static final ConcurrentHashMap<Long, LatticeReference> LATTICES = new ConcurrentHashMap<>();
+
+    /**
+     * The queue of the references to lattices which are no longer reachable.
+     */
+    private static final ReferenceQueue<GradientLattice> UNREACHABLE = new ReferenceQueue<>();
+
+    /**
+     * The seed used to generate the gradient vectors.
+     */
+    private final long seed;
+
+    /**
+     * The weak references to the interleaved x and y components of the gradient vectors of the generated pages,
+     * identified by the packed page coordinates.
+     */
+    private final ConcurrentHashMap<Long, PageReference> pages = new ConcurrentHashMap<>();
+
+    /**
+     * The queue of the references to pages which are no longer held by any view.
+     */
+    private final ReferenceQueue<double[]> unreachablePages = new ReferenceQueue<>();
+
+    /**
+     * Constructs an empty lattice whose gradient vectors are generated from the specified seed.
+     *
+     * @param seed the seed used to generate the gradient vectors
+     */
+    public GradientLattice(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Returns the lattice of the specified seed which is shared with all other callers while it is reachable.
+     *
+     * @param seed the seed used to generate the gradient vectors
+     * @return the shared lattice of the specified seed
+     */
+    public static GradientLattice shared(long seed) {
+        purge();
+        while (true) {
+            LatticeReference reference = LATTICES.get(seed);
+            GradientLattice lattice = reference == null ? null : reference.get();
+            if (lattice != null) {
+                return lattice;
+            }
+            GradientLattice created = new GradientLattice(seed);
+            LatticeReference createdReference = new LatticeReference(created);
+            boolean registered = reference == null
+                ? LATTICES.putIfAbsent(seed, createdReference) == null
+                : LATTICES.replace(seed, reference, createdReference);
+            if (registered) {
+                return created;
+            }
+        }
+    }
+
+    /**
+     * Removes the references to lattices which are no longer reachable from the registry.
+     */
+    private static void purge() {
+        LatticeReference reference;
+        while ((reference = (LatticeReference) UNREACHABLE.poll()) != null) {
+            LATTICES.remove(reference.seed, reference);
+        }
+    }
+
+    /**
+     * Returns a gradient table with the specified dimension which views this lattice.
+     *
+     * @param width  the number of lattice corners per row
+     * @param height the number of lattice rows
+     * @return a gradient table with the specified dimension which views this lattice
+     * @throws IllegalArgumentException if the width or height is negative or the view is too large to be indexed
+     */
+    public PagedGradientTable view(int width, int height) {
+        return new PagedGradientTable(this, width, height);
+    }
+
+    /**
+     * Returns the components of the specified page, generating the page if it is not held by any view.
+     *
+     * <p>The returned page must be held by the caller for as long as it is used, since this lattice only references
+     * it weakly.
+     *
+     * @param tx the x coordinate of the page
+     * @param ty the y coordinate of the page
+     * @return the interleaved x and y components of the gradient vectors of the page, stored row by row
+     */
+    double[] page(int tx, int ty) {
+        long key = ((long) ty << Integer.SIZE) | (tx & 0xFFFFFFFFL);
+        PageReference reference = pages.get(key);
+        double[] page = reference == null ? null : reference.get();
+        if (page != null) {
+            return page;
+        }
+        purgePages();
+        // The page is generated while the key is locked, so concurrent views never generate it twice
+        double[][] result = new double[1][];
+        pages.compute(key, (k, current) -> {
+            double[] components = current == null ? null : current.get();
+            if (components == null) {
+                components = generate(tx, ty);
+                current = new PageReference(k, components, unreachablePages);
+            }
+            result[0] = components;
+            return current;
+        });
+        return result[0];
+    }
+
+    /**
+     * Generates the components of the specified page.
+     *
+     * @param tx the x coordinate of the page
+     * @param ty the y coordinate of the page
+     * @return the interleaved x and y components of the gradient vectors of the page, stored row by row
+     */
+    private double[] generate(int tx, int ty) {
+        double[] components = new double[PAGE_LENGTH];
+        GradientTiles.fill(
+            seed, tx, ty,
+            GradientTiles.TILE_SIZE,
+            GradientTiles.TILE_SIZE,
+            components,
+            0,
+            2 * GradientTiles.TILE_SIZE
+        );
+        return components;
+    }
+
+    /**
+     * Removes the references to pages which are no longer held by any view.
+     */
+    private void purgePages() {
+        PageReference reference;
+        while ((reference = (PageReference) unreachablePages.poll()) != null) {
+            pages.remove(reference.key, reference);
+        }
+    }
+
+    /**
+     * Returns the seed used to generate the gradient vectors.
+     *
+     * @return the seed used to generate the gradient vectors
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns the number of generated pages which are still held by any view.
+     *
+     * @return the number of generated pages which are still held by any view
+     */
+    public int getPageCount() {
+        purgePages();
+        int count = 0;
+        for (PageReference reference : pages.values()) {
+            if (reference.get() != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of bytes of the generated pages which are still held by any view. Since the views share the
+     * pages, this is the memory of the gradient vectors of all views of this lattice together.
+     *
+     * @return the number of bytes of the generated pages which are still held by any view
+     */
+    public long retainedSize() {
+        return (long) Double.BYTES * PAGE_LENGTH * getPageCount();
+    }
+
+    /**
+     * A weak reference to a page which remembers its key to remove it from the pages.
+     */
+    private static final class PageReference extends WeakReference<double[]> {
+
+        /**
+         * The packed coordinates of the referenced page.
+         */
+        final long key;
+
+        /**
+         * Constructs a weak reference to the specified page.
+         *
+         * @param key   the packed coordinates of the page
+         * @param page  the components of the page
+         * @param queue the queue to register the reference with
+         */
+        PageReference(long key, double[] page, ReferenceQueue<double[]> queue) {
+            super(page, queue);
+            this.key = key;
+        }
+    }
+
+    /**
+     * A weak reference to a shared lattice which remembers the seed to remove it from the registry.
+     */
+    private static final class LatticeReference extends WeakReference<GradientLattice> {
+
+        /**
+         * The seed of the referenced lattice.
+         */
+        final long seed;
+
+        /**
+         * Constructs a weak reference to the specified lattice.
+         *
+         * @param lattice the lattice to reference
+         */
+        LatticeReference(GradientLattice lattice) {
+            super(lattice, UNREACHABLE);
+            this.seed = lattice.seed;
+        }
+    }
+}
@@ -1,8 +1,5 @@
 package h13.noise;
 
-import java.util.stream.DoubleStream;
-import java.util.stream.IntStream;
-
 /**
  * This interface represents a gradient noise generator that produces coherent noise values based on grid coordinates.
  *
@@ -37,6 +34,8 @@ public interface GradientNoise {
     /**
      * Computes the gradient noise values for the specified noise domain coordinates (rectangle area).
      *
+     * <p>The values are computed in parallel by the {@linkplain NoiseScheduler#getDefault() default scheduler}.
+     *
      * @param x the x-coordinate of the starting point of the noise domain
      * @param y the y-coordinate of the starting point of the noise domain
      * @param w the width of the noise domain
@@ -44,11 +43,58 @@ public interface GradientNoise {
      * @return the computed gradient noise values for the specified noise domain coordinates
      */
     default double[][] compute(int x, int y, int w, int h) {
-        return IntStream.range(x, w)
-            .parallel()
-            .mapToObj(xi -> IntStream.range(y, h).parallel().mapToDouble(yi -> compute(xi, yi)))
-            .map(DoubleStream::toArray)
-            .toArray(double[][]::new);
+        return NoiseScheduler.getDefault().compute(this, x, y, w, h);
+    }
+
+    /**
+     * Computes the gradient noise values for the specified noise domain coordinates (rectangle area) and stores them
+     * in the given buffer. The area is the same as the one of {@link #compute(int, int, int, int)}, i.e. the
+     * x-coordinates range from {@code x} inclusive to {@code w} exclusive and the y-coordinates range from {@code y}
+     * inclusive to {@code h} exclusive.
+     *
+     * <p>The values are stored row by row, the value at the coordinates (xi, yi) is stored at the index
+     * {@code offset + (yi - y) * stride + (xi - x)} of the buffer. This method does not allocate any memory, so the
+     * same buffer can be reused for multiple computations.
+     *
+     * @param x      the x-coordinate of the starting point of the noise domain
+     * @param y      the y-coordinate of the starting point of the noise domain
+     * @param w      the width of the noise domain
+     * @param h      the height of the noise domain
+     * @param out    the buffer to store the computed gradient noise values in
+     * @param offset the index of the buffer at which the first value is stored
+     * @param stride the distance between the first values of two consecutive rows in the buffer
+     * @throws IndexOutOfBoundsException if the buffer is too small to hold the computed values
+     */
+    default void compute(int x, int y, int w, int h, double[] out, int offset, int stride) {
+        for (int yi = y; yi < h; yi++) {
+            int index = offset + (yi - y) * stride - x;
+            for (int xi = x; xi < w; xi++) {
+                out[index + xi] = compute(xi, yi);
+            }
+        }
+    }
+
+    /**
+     * Computes the gradient noise values for the specified noise domain coordinates (rectangle area) and stores them
+     * with single precision in the given buffer.
+     *
+     * @param x      the x-coordinate of the starting point of the noise domain
+     * @param y      the y-coordinate of the starting point of the noise domain
+     * @param w      the width of the noise domain
+     * @param h      the height of the noise domain
+     * @param out    the buffer to store the computed gradient noise values in
+     * @param offset the index of the buffer at which the first value is stored
+     * @param stride the distance between the first values of two consecutive rows in the buffer
+     * @throws IndexOutOfBoundsException if the buffer is too small to hold the computed values
+     * @see #compute(int, int, int, int, double[], int, int)
+     */
+    default void compute(int x, int y, int w, int h, float[] out, int offset, int stride) {
+        for (int yi = y; yi < h; yi++) {
+            int index = offset + (yi - y) * stride - x;
+            for (int xi = x; xi < w; xi++) {
+                out[index + xi] = (float) compute(xi, yi);
+            }
+        }
     }
 
     /**
@@ -0,0 +1,84 @@
+package h13.noise;
+
+import javafx.geometry.Point2D;
+
+/**
+ * A table of 2D gradient vectors which are associated with the corners of a gradient noise lattice.
+ *
+ * <p>Each lattice corner (x, y) is mapped to a slot of the table using {@link #index(int, int)} and the components of
+ * its gradient vector are read from that slot using {@link #getX(int)} and {@link #getY(int)}. Separating the mapping
+ * from the lookup allows noise algorithms to choose the slot themselves, for example through a permutation table.
+ *
+ * @see PerlinNoise
+ */
+public interface GradientTable {
+
+    /**
+     * Returns the slot of the gradient vector associated with the specified lattice corner.
+     *
+     * @param x the x coordinate of the lattice corner
+     * @param y the y coordinate of the lattice corner
+     * @return the slot of the gradient vector associated with the specified lattice corner
+     */
+    int index(int x, int y);
+
+    /**
+     * Returns the x component of the gradient vector stored in the specified slot.
+     *
+     * @param index the slot of the gradient vector
+     * @return the x component of the gradient vector stored in the specified slot
+     */
+    double getX(int index);
+
+    /**
+     * Returns the y component of the gradient vector stored in the specified slot.
+     *
+     * @param index the slot of the gradient vector
+     * @return the y component of the gradient vector stored in the specified slot
+     */
+    double getY(int index);
+
+    /**
+     * Returns the gradient vector stored in the specified slot.
+     *
+     * @param index the slot of the gradient vector
+     * @return the gradient vector stored in the specified slot
+     */
+    default Point2D get(int index) {
+        return new Point2D(getX(index), getY(index));
+    }
+
+    /**
+     * Computes the dot product of the gradient vector stored in the specified slot and the given offset vector.
+     *
+     * @param index the slot of the gradient vector
+     * @param dx    the x component of the offset vector
+     * @param dy    the y component of the offset vector
+     * @return the dot product of the gradient vector and the offset vector
+     */
+    default double dot(int index, double dx, double dy) {
+        return getX(index) * dx + getY(index) * dy;
+    }
+
+    /**
+     * Returns a 64-bit fingerprint of the gradient vectors of this table. Tables with the same gradient vectors have
+     * the same fingerprint, and tables with different gradient vectors have different fingerprints with a
+     * probability of about 1 - 2^-64. The fingerprint must be computed in constant time, except possibly once.
+     *
+     * @return a 64-bit fingerprint of the gradient vectors of this table
+     */
+    long fingerprint();
+
+    /**
+     * Returns the approximate number of bytes retained by this table, which is dominated by the stored gradient
+     * vectors. Gradient vectors which are generated lazily are counted as if they were generated, so the size does
+     * not change while the table is used.
+     *
+     * <p>The default implementation returns 0 for tables which do not store any gradient vectors.
+     *
+     * @return the approximate number of bytes retained by this table
+     */
+    default long retainedSize() {
+        return 0;
+    }
+}
@@ -0,0 +1,284 @@
+package h13.noise;
+
+import java.io.Serial;
+import java.nio.DoubleBuffer;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Utility methods to generate random gradient vectors from a seed tile by tile, so that tiles can be generated
+ * independently of each other and in any order.
+ *
+ * <p>The lattice is divided into tiles of {@value #TILE_SIZE} x {@value #TILE_SIZE} corners. The gradient vectors of
+ * a tile are drawn row by row from a {@link SplittableRandom} whose seed is derived from the seed and the tile
+ * coordinates, so the gradient vector of a corner only depends on the seed and the corner coordinates. In particular,
+ * it does not depend on the size of the lattice, the number of threads or the order in which the tiles are generated.
+ * Like the gradient vectors of {@link AbstractPerlinNoise}, the components are uniformly distributed in [-1, 1].
+ */
+final class GradientTiles {
+
+    /**
+     * The number of corners per tile row and tile column.
+     */
+    static final int TILE_SIZE = 64;
+
+    /**
+     * The inclusive upper bound of the components of the gradient vectors.
+     */
+    private static final double BOUND = Math.nextUp(1.0);
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private GradientTiles() {
+    }
+
+    /**
+     * Returns the seed of the random generator of the specified tile.
+     *
+     * @param seed the seed of the lattice
+     * @param tx   the x coordinate of the tile
+     * @param ty   the y coordinate of the tile
+     * @return the seed of the random generator of the specified tile
+     */
+    static long seed(long seed, int tx, int ty) {
+        return Fingerprints.combine(Fingerprints.combine(seed, tx), ty);
+    }
+
+    /**
+     * Generates the gradient vectors of the specified tile and stores the ones of the corners in the specified range
+     * of the tile as interleaved x and y components row by row in the given buffer. The corners outside the range are
+     * drawn as well, so the gradient vectors do not depend on the range.
+     *
+     * @param seed       the seed of the lattice
+     * @param tx         the x coordinate of the tile
+     * @param ty         the y coordinate of the tile
+     * @param columns    the number of stored corners per tile row, starting at the first corner of the row
+     * @param rows       the number of stored tile rows, starting at the first row of the tile
+     * @param components the buffer to store the interleaved components in
+     * @param offset     the index of the buffer at which the x component of the first corner is stored
+     * @param stride     the distance between the x components of the first corners of two consecutive rows
+     */
+    static void fill(long seed, int tx, int ty, int columns, int rows, double[] components, int offset, int stride) {
+        SplittableRandom random = new SplittableRandom(seed(seed, tx, ty));
+        for (int row = 0; row < rows; row++) {
+            int index = offset + row * stride;
+            for (int column = 0; column < TILE_SIZE; column++) {
+                double x = random.nextDouble(-1, BOUND);
+                double y = random.nextDouble(-1, BOUND);
+                if (column < columns) {
+                    components[index + 2 * column] = x;
+                    components[index + 2 * column + 1] = y;
+                }
+            }
+        }
+    }
+
+    /**
+     * Generates the gradient vectors of the specified tile like {@link #fill(long, int, int, int, int, double[], int,
+     * int)}, but stores them in the specified buffer, e.g. a direct or memory-mapped buffer.
+     *
+     * @param seed       the seed of the lattice
+     * @param tx         the x coordinate of the tile
+     * @param ty         the y coordinate of the tile
+     * @param columns    the number of stored corners per tile row, starting at the first corner of the row
+     * @param rows       the number of stored tile rows, starting at the first row of the tile
+     * @param components the buffer to store the interleaved components in
+     * @param offset     the index of the buffer at which the x component of the first corner is stored
+     * @param stride     the distance between the x components of the first corners of two consecutive rows
+     */
+    static void fill(
+        long seed,
+        int tx,
+        int ty,
+        int columns,
+        int rows,
+        DoubleBuffer components,
+        int offset,
+        int stride
+    ) {
+        SplittableRandom random = new SplittableRandom(seed(seed, tx, ty));
+        for (int row = 0; row < rows; row++) {
+            int index = offset + row * stride;
+            for (int column = 0; column < TILE_SIZE; column++) {
+                double x = random.nextDouble(-1, BOUND);
+                double y = random.nextDouble(-1, BOUND);
+                if (column < columns) {
+                    components.put(index + 2 * column, x);
+                    components.put(index + 2 * column + 1, y);
+                }
+            }
+        }
+    }
+
+    /**
+     * Generates the gradient vectors of the lattice with the specified dimension in parallel on the pool of the
+     * {@linkplain NoiseScheduler#getDefault() default scheduler}.
+     *
+     * @param width  the number of lattice corners per row
+     * @param height the number of lattice rows
+     * @param seed   the seed of the lattice
+     * @return the interleaved x and y components of the gradient vectors, stored row by row
+     */
+    static double[] generate(int width, int height, long seed) {
+        return generate(width, height, seed, NoiseScheduler.getDefault().getPool());
+    }
+
+    /**
+     * Generates the gradient vectors of the lattice with the specified dimension in parallel on the specified pool.
+     * The result does not depend on the parallelism of the pool.
+     *
+     * @param width  the number of lattice corners per row
+     * @param height the number of lattice rows
+     * @param seed   the seed of the lattice
+     * @param pool   the pool on which the tiles are generated
+     * @return the interleaved x and y components of the gradient vectors, stored row by row
+     */
+    static double[] generate(int width, int height, long seed, ForkJoinPool pool) {
+        double[] components = new double[width * height * 2];
+        forEachTile(width, height, pool, (tx, ty, columns, rows, offset) ->
+            fill(seed, tx, ty, columns, rows, components, offset, 2 * width));
+        return components;
+    }
+
+    /**
+     * Generates the gradient vectors of the lattice with the specified dimension in parallel on the pool of the
+     * {@linkplain NoiseScheduler#getDefault() default scheduler} and stores them as interleaved x and y components
+     * row by row in the specified buffer, so no array has to be allocated on the Java heap. The gradient vectors are
+     * the same as the ones of {@link #generate(int, int, long)}.
+     *
+     * @param width      the number of lattice corners per row
+     * @param height     the number of lattice rows
+     * @param seed       the seed of the lattice
+     * @param components the buffer to store the interleaved components in, which must hold at least
+     *                   {@code width * height * 2} components
+     */
+    static void generate(int width, int height, long seed, DoubleBuffer components) {
+        forEachTile(width, height, NoiseScheduler.getDefault().getPool(), (tx, ty, columns, rows, offset) ->
+            fill(seed, tx, ty, columns, rows, components, offset, 2 * width));
+    }
+
+    /**
+     * Applies the specified action to every tile of the lattice with the specified dimension in parallel on the
+     * specified pool.
+     *
+     * @param width  the number of lattice corners per row
+     * @param height the number of lattice rows
+     * @param pool   the pool on which the tiles are processed
+     * @param action the action to apply to every tile
+     */
+    static void forEachTile(int width, int height, ForkJoinPool pool, TileAction action) {
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        int columns = (width + TILE_SIZE - 1) / TILE_SIZE;
+        int rows = (height + TILE_SIZE - 1) / TILE_SIZE;
+        TileTask task = new TileTask(width, height, columns, 0, columns * rows, action);
+        if (ForkJoinTask.getPool() == pool) {
+            // Already running on the pool, e.g. inside a scheduled computation, so the tiles are forked into it
+            // instead of blocking a worker on a nested submission
+            task.invoke();
+        } else {
+            pool.invoke(task);
+        }
+    }
+
+    /**
+     * An action which is applied to a tile of a lattice.
+     */
+    @FunctionalInterface
+    interface TileAction {
+
+        /**
+         * Applies this action to the specified tile.
+         *
+         * @param tx      the x coordinate of the tile
+         * @param ty      the y coordinate of the tile
+         * @param columns the number of corners of the tile per row which are inside the lattice
+         * @param rows    the number of rows of the tile which are inside the lattice
+         * @param offset  the index of the x component of the first corner of the tile in the interleaved components
+         *                of the lattice
+         */
+        void apply(int tx, int ty, int columns, int rows, int offset);
+    }
+
+    /**
+     * A task which applies an action to a range of tiles, numbered row by row, by recursively splitting it in halves.
+     */
+    private static final class TileTask extends RecursiveAction {
+
+        /**
+         * The serial version UID of this task.
+         */
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The number of lattice corners per row.
+         */
+        private final int width;
+
+        /**
+         * The number of lattice rows.
+         */
+        private final int height;
+
+        /**
+         * The number of tiles per row.
+         */
+        private final int columns;
+
+        /**
+         * The first tile to process.
+         */
+        private final int from;
+
+        /**
+         * The exclusive last tile to process.
+         */
+        private final int to;
+
+        /**
+         * The action to apply to every tile.
+         */
+        private final TileAction action;
+
+        /**
+         * Constructs a task which applies the specified action to the specified range of tiles.
+         *
+         * @param width   the number of lattice corners per row
+         * @param height  the number of lattice rows
+         * @param columns the number of tiles per row
+         * @param from    the first tile to process
+         * @param to      the exclusive last tile to process
+         * @param action  the action to apply to every tile
+         */
+        TileTask(int width, int height, int columns, int from, int to, TileAction action) {
+            this.width = width;
+            this.height = height;
+            this.columns = columns;
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(
+                    new TileTask(width, height, columns, from, middle, action),
+                    new TileTask(width, height, columns, middle, to, action)
+                );
+                return;
+            }
+            int tx = from % columns;
+            int ty = from / columns;
+            int x = tx * TILE_SIZE;
+            int y = ty * TILE_SIZE;
+            action.apply(tx, ty, Math.min(TILE_SIZE, width - x), Math.min(TILE_SIZE, height - y), 2 * (width * y + x));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package h13.noise;
+
+/**
+ * A procedural gradient table which derives the gradient vector of a lattice corner from a seed and the corner
+ * coordinates using an integer hash function.
+ *
+ * <p>The table does not store any gradient vectors, so it requires constant memory, needs no construction time and
+ * accepts arbitrary lattice coordinates including negative ones. Like the random gradients of
+ * {@link AbstractPerlinNoise}, the components of the vectors are uniformly distributed in the interval [-1, 1], with a
+ * resolution of 16 bits.
+ *
+ * @see GradientTable
+ */
+public class HashGradientTable implements GradientTable {
+
+    /**
+     * The scale which maps a signed 16-bit integer to the interval [-1, 1].
+     */
+    private static final double SCALE = 0x1.0p-15;
+
+    /**
+     * The seed used to derive the gradient vectors.
+     */
+    private final long seed;
+
+    /**
+     * Constructs a procedural gradient table with the specified seed.
+     *
+     * @param seed the seed used to derive the gradient vectors
+     */
+    public HashGradientTable(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Both coordinates are packed into 64 bits and mixed with the seed before the slot is truncated to 32 bits, so
+     * two corners only share a slot by chance and not along regular patterns of the lattice. The slot is the hash of
+     * the corner itself and contains the x component of its gradient vector in its upper and the y component in its
+     * lower 16 bits, so every corner is only mixed once.
+     */
+    @Override
+    public int index(int x, int y) {
+        long corner = ((long) y << Integer.SIZE) | (x & 0xFFFFFFFFL);
+        return (int) Fingerprints.combine(seed, corner);
+    }
+
+    @Override
+    public double getX(int index) {
+        return (index >> 16) * SCALE;
+    }
+
+    @Override
+    public double getY(int index) {
+        return (short) index * SCALE;
+    }
+
+    @Override
+    public long fingerprint() {
+        return Fingerprints.combine(Fingerprints.of(HashGradientTable.class), seed);
+    }
+
+    /**
+     * Returns the seed used to derive the gradient vectors.
+     *
+     * @return the seed used to derive the gradient vectors
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        HashGradientTable that = (HashGradientTable) o;
+        return seed == that.seed;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(seed);
+    }
+}
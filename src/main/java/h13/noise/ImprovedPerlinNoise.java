@@ -3,12 +3,15 @@ package h13.noise;
 import javafx.geometry.Point2D;
 import org.tudalgo.algoutils.student.annotation.StudentImplementationRequired;
 
-import java.util.Arrays;
 import java.util.Random;
 
 /**
  * An improved implementation of the Perlin noise algorithm that uses a permutation array to access the gradient.
  *
+ * <p>Since the permutation array only yields indices below {@value #PERMUTATION_SIZE}, only that many gradients are
+ * generated, independent of the size of the noise domain. They are the same gradients as the first
+ * {@value #PERMUTATION_SIZE} gradients of the underlying noise if both use random generators in the same state.
+ *
  * @author Nhan Huynh
  */
 public class ImprovedPerlinNoise extends SimplePerlinNoise implements PerlinNoise {
@@ -35,12 +38,61 @@ public class ImprovedPerlinNoise extends SimplePerlinNoise implements PerlinNois
     /**
      * Constructs an improved Perlin noise with wrapping the underlying Perlin noise object.
      *
-     * @param noise            the underlying Perlin noise object
-     * @param p the permutation array used for accessing the gradient vectors
+     * @param noise the underlying Perlin noise object
+     * @param p     the permutation array used for accessing the gradient vectors
      * @throws IllegalArgumentException if the permutation array does not have the size {@value #PERMUTATION_SIZE} * 2
      */
     public ImprovedPerlinNoise(PerlinNoise noise, int[] p) {
-        super(noise.getWidth(), noise.getHeight(), noise.getFrequency(), noise.getRandomGenerator());
+        super(
+            noise.getWidth(),
+            noise.getHeight(),
+            noise.getFrequency(),
+            noise.getRandomGenerator(),
+            PERMUTATION_SIZE,
+            1
+        );
+        if (p.length != PERMUTATION_SIZE * 2) {
+            throw new IllegalArgumentException("The permutation array must have the size %d * 2.".formatted(PERMUTATION_SIZE));
+        }
+        this.p = p;
+    }
+
+    /**
+     * Constructs an improved Perlin noise with wrapping the underlying Perlin noise object, which selects the
+     * gradient vectors from the specified gradient table using the permutation array. No gradient vectors are
+     * generated.
+     *
+     * @param noise     the underlying Perlin noise object
+     * @param p         the permutation array used for accessing the gradient vectors
+     * @param gradients the table of gradient vectors, which must contain at least {@value #PERMUTATION_SIZE} slots
+     * @throws IllegalArgumentException if the permutation array does not have the size {@value #PERMUTATION_SIZE} * 2
+     * @see FixedGradientTable
+     */
+    public ImprovedPerlinNoise(PerlinNoise noise, int[] p, GradientTable gradients) {
+        this(noise.getWidth(), noise.getHeight(), noise.getFrequency(), noise.getRandomGenerator(), p, gradients);
+    }
+
+    /**
+     * Constructs an improved Perlin noise with the specified noise domain, frequency and randomGenerator, which
+     * selects the gradient vectors from the specified gradient table using the permutation array.
+     *
+     * @param width           the width of the noise domain
+     * @param height          the height of the noise domain
+     * @param frequency       the frequency of the Perlin noise
+     * @param randomGenerator the random generator of the Perlin noise
+     * @param p               the permutation array used for accessing the gradient vectors
+     * @param gradients       the table of gradient vectors
+     * @throws IllegalArgumentException if the permutation array does not have the size {@value #PERMUTATION_SIZE} * 2
+     */
+    private ImprovedPerlinNoise(
+        int width,
+        int height,
+        double frequency,
+        Random randomGenerator,
+        int[] p,
+        GradientTable gradients
+    ) {
+        super(width, height, frequency, randomGenerator, gradients);
         if (p.length != PERMUTATION_SIZE * 2) {
             throw new IllegalArgumentException("The permutation array must have the size %d * 2.".formatted(PERMUTATION_SIZE));
         }
@@ -72,13 +124,45 @@ public class ImprovedPerlinNoise extends SimplePerlinNoise implements PerlinNois
         return p;
     }
 
+    @Override
+    public ImprovedPerlinNoise withFrequency(double frequency) {
+        if (Double.compare(frequency, getFrequency()) == 0) {
+            return this;
+        }
+        return new ImprovedPerlinNoise(getWidth(), getHeight(), frequency, getRandomGenerator(), p, getGradientTable());
+    }
+
     @Override
     @StudentImplementationRequired
     public Point2D getGradient(int x, int y) {
         // TODO H2.1
         // Formula: p[x + p[y & (n - 1)] & (n - 1)]
         int index = p[(x + p[y & (PERMUTATION_SIZE - 1)]) & (PERMUTATION_SIZE - 1)];
-        return getGradients()[index];
+        return getGradient(index);
+    }
+
+    @Override
+    @StudentImplementationRequired
+    protected int getGradientIndex(int x, int y) {
+        // TODO H2.1
+        // Formula: p[x + p[y & (n - 1)] & (n - 1)]
+        return p[(x + p[y & (PERMUTATION_SIZE - 1)]) & (PERMUTATION_SIZE - 1)];
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Since the permutation array only yields indices below {@value #PERMUTATION_SIZE}, the snapshot contains the
+     * first {@value #PERMUTATION_SIZE} gradient vectors of the gradient table, like the generated array.
+     */
+    @Override
+    protected Point2D[] snapshotGradients() {
+        GradientTable table = getGradientTable();
+        Point2D[] result = new Point2D[PERMUTATION_SIZE];
+        for (int i = 0; i < PERMUTATION_SIZE; i++) {
+            result[i] = table.get(i);
+        }
+        return result;
     }
 
     /**
@@ -91,25 +175,12 @@ public class ImprovedPerlinNoise extends SimplePerlinNoise implements PerlinNois
     }
 
     @Override
-    public boolean equals(Object o) {
-        if (this == o) {
-            return true;
-        }
-        if (o == null || getClass() != o.getClass()) {
-            return false;
-        }
-        if (!super.equals(o)) {
-            return false;
-        }
-        var that = (ImprovedPerlinNoise) o;
-        return Arrays.equals(p, that.p);
+    public long retainedSize() {
+        return super.retainedSize() + (long) Integer.BYTES * p.length;
     }
 
     @Override
-    public int hashCode() {
-        if (hashCode == -1) {
-            hashCode = 31 * super.hashCode() + Arrays.hashCode(p);
-        }
-        return hashCode;
+    public long fingerprint() {
+        return Fingerprints.combine(super.fingerprint(), Fingerprints.of(p));
     }
 }
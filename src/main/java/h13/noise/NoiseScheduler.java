@@ -0,0 +1,323 @@
+package h13.noise;
+
+import java.io.Serial;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A scheduler which evaluates rectangle areas of a {@link GradientNoise} in parallel.
+ *
+ * <p>The area is split into fixed-size tiles which are processed by fork-join tasks on a dedicated
+ * {@link ForkJoinPool}, so the evaluation does not compete with other work in the common pool. Each tile is computed
+ * with {@link GradientNoise#compute(int, int, int, int, double[], int, int)}, so noise implementations can provide an
+ * efficient evaluation for a whole tile.
+ *
+ * @see GradientNoise
+ */
+public class NoiseScheduler {
+
+    /**
+     * The default width and height of a tile.
+     */
+    public static final int DEFAULT_TILE_SIZE = 64;
+
+    /**
+     * The scheduler used by default, which is created on first access.
+     */
+    private static volatile NoiseScheduler defaultScheduler;
+
+    /**
+     * The pool on which the tiles are processed.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * The width and height of a tile.
+     */
+    private final int tileSize;
+
+    /**
+     * Constructs a scheduler with a dedicated pool of the specified parallelism and the specified tile size.
+     *
+     * @param parallelism the number of threads used to process the tiles
+     * @param tileSize    the width and height of a tile
+     * @throws IllegalArgumentException if the parallelism or the tile size is not positive
+     */
+    public NoiseScheduler(int parallelism, int tileSize) {
+        this(createPool(parallelism), tileSize);
+    }
+
+    /**
+     * Constructs a scheduler which processes the tiles of the specified size on the specified pool.
+     *
+     * @param pool     the pool on which the tiles are processed
+     * @param tileSize the width and height of a tile
+     * @throws IllegalArgumentException if the tile size is not positive
+     */
+    public NoiseScheduler(ForkJoinPool pool, int tileSize) {
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("Tile size must be positive");
+        }
+        this.pool = pool;
+        this.tileSize = tileSize;
+    }
+
+    /**
+     * Returns the default scheduler which uses a dedicated pool with one thread per available processor and tiles of
+     * the size {@value #DEFAULT_TILE_SIZE}.
+     *
+     * @return the default scheduler
+     */
+    public static NoiseScheduler getDefault() {
+        NoiseScheduler scheduler = defaultScheduler;
+        if (scheduler == null) {
+            synchronized (NoiseScheduler.class) {
+                scheduler = defaultScheduler;
+                if (scheduler == null) {
+                    scheduler = new NoiseScheduler(Runtime.getRuntime().availableProcessors(), DEFAULT_TILE_SIZE);
+                    defaultScheduler = scheduler;
+                }
+            }
+        }
+        return scheduler;
+    }
+
+    /**
+     * Creates a dedicated pool with the specified parallelism whose threads do not prevent the JVM from exiting.
+     *
+     * @param parallelism the number of threads of the pool
+     * @return the created pool
+     * @throws IllegalArgumentException if the parallelism is not positive
+     */
+    private static ForkJoinPool createPool(int parallelism) {
+        AtomicInteger counter = new AtomicInteger();
+        return new ForkJoinPool(
+            parallelism,
+            pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("noise-worker-" + counter.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            },
+            null,
+            false
+        );
+    }
+
+    /**
+     * Returns the pool on which the tiles are processed.
+     *
+     * @return the pool on which the tiles are processed
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Returns the width and height of a tile.
+     *
+     * @return the width and height of a tile
+     */
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * Computes the gradient noise values for the specified noise domain coordinates (rectangle area) in parallel and
+     * stores them in the given buffer.
+     *
+     * @param noise  the noise to evaluate
+     * @param x      the x-coordinate of the starting point of the noise domain
+     * @param y      the y-coordinate of the starting point of the noise domain
+     * @param w      the width of the noise domain
+     * @param h      the height of the noise domain
+     * @param out    the buffer to store the computed gradient noise values in
+     * @param offset the index of the buffer at which the first value is stored
+     * @param stride the distance between the first values of two consecutive rows in the buffer
+     * @see GradientNoise#compute(int, int, int, int, double[], int, int)
+     */
+    public void compute(GradientNoise noise, int x, int y, int w, int h, double[] out, int offset, int stride) {
+        invoke(x, y, w, h, (tx, ty, tw, th) ->
+            noise.compute(tx, ty, tw, th, out, offset + (ty - y) * stride + (tx - x), stride));
+    }
+
+    /**
+     * Computes the gradient noise values for the specified noise domain coordinates (rectangle area) in parallel and
+     * stores them with single precision in the given buffer.
+     *
+     * @param noise  the noise to evaluate
+     * @param x      the x-coordinate of the starting point of the noise domain
+     * @param y      the y-coordinate of the starting point of the noise domain
+     * @param w      the width of the noise domain
+     * @param h      the height of the noise domain
+     * @param out    the buffer to store the computed gradient noise values in
+     * @param offset the index of the buffer at which the first value is stored
+     * @param stride the distance between the first values of two consecutive rows in the buffer
+     * @see GradientNoise#compute(int, int, int, int, float[], int, int)
+     */
+    public void compute(GradientNoise noise, int x, int y, int w, int h, float[] out, int offset, int stride) {
+        invoke(x, y, w, h, (tx, ty, tw, th) ->
+            noise.compute(tx, ty, tw, th, out, offset + (ty - y) * stride + (tx - x), stride));
+    }
+
+    /**
+     * Computes the gradient noise values for the specified noise domain coordinates (rectangle area) in parallel.
+     *
+     * @param noise the noise to evaluate
+     * @param x     the x-coordinate of the starting point of the noise domain
+     * @param y     the y-coordinate of the starting point of the noise domain
+     * @param w     the width of the noise domain
+     * @param h     the height of the noise domain
+     * @return the computed gradient noise values for the specified noise domain coordinates
+     * @see GradientNoise#compute(int, int, int, int)
+     */
+    public double[][] compute(GradientNoise noise, int x, int y, int w, int h) {
+        int columns = Math.max(w - x, 0);
+        int rows = Math.max(h - y, 0);
+        double[] buffer = new double[columns * rows];
+        compute(noise, x, y, w, h, buffer, 0, columns);
+        double[][] result = new double[columns][rows];
+        for (int yi = 0; yi < rows; yi++) {
+            for (int xi = 0; xi < columns; xi++) {
+                result[xi][yi] = buffer[yi * columns + xi];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Splits the specified area into tiles and processes them on the pool of this scheduler.
+     *
+     * @param x    the x-coordinate of the starting point of the area
+     * @param y    the y-coordinate of the starting point of the area
+     * @param w    the exclusive end x-coordinate of the area
+     * @param h    the exclusive end y-coordinate of the area
+     * @param tile the computation of a single tile
+     */
+    private void invoke(int x, int y, int w, int h, Tile tile) {
+        if (w <= x || h <= y) {
+            return;
+        }
+        int columns = (w - x + tileSize - 1) / tileSize;
+        int rows = (h - y + tileSize - 1) / tileSize;
+        pool.invoke(new TileTask(x, y, w, h, columns, 0, columns * rows, tile));
+    }
+
+    /**
+     * Shuts down the pool of this scheduler.
+     *
+     * @see ForkJoinPool#shutdown()
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * The computation of a single tile given by its exclusive end coordinates.
+     */
+    @FunctionalInterface
+    private interface Tile {
+
+        /**
+         * Computes the tile with the specified coordinates.
+         *
+         * @param x the x-coordinate of the starting point of the tile
+         * @param y the y-coordinate of the starting point of the tile
+         * @param w the exclusive end x-coordinate of the tile
+         * @param h the exclusive end y-coordinate of the tile
+         */
+        void compute(int x, int y, int w, int h);
+    }
+
+    /**
+     * A task which processes a range of tiles, numbered row by row, by recursively splitting it in halves.
+     */
+    private class TileTask extends RecursiveAction {
+
+        /**
+         * The serial version UID of this task.
+         */
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The x-coordinate of the starting point of the area.
+         */
+        private final int x;
+
+        /**
+         * The y-coordinate of the starting point of the area.
+         */
+        private final int y;
+
+        /**
+         * The exclusive end x-coordinate of the area.
+         */
+        private final int w;
+
+        /**
+         * The exclusive end y-coordinate of the area.
+         */
+        private final int h;
+
+        /**
+         * The number of tiles per row.
+         */
+        private final int columns;
+
+        /**
+         * The first tile to process.
+         */
+        private final int from;
+
+        /**
+         * The exclusive last tile to process.
+         */
+        private final int to;
+
+        /**
+         * The computation of a single tile.
+         */
+        private final Tile tile;
+
+        /**
+         * Constructs a task which processes the specified range of tiles.
+         *
+         * @param x       the x-coordinate of the starting point of the area
+         * @param y       the y-coordinate of the starting point of the area
+         * @param w       the exclusive end x-coordinate of the area
+         * @param h       the exclusive end y-coordinate of the area
+         * @param columns the number of tiles per row
+         * @param from    the first tile to process
+         * @param to      the exclusive last tile to process
+         * @param tile    the computation of a single tile
+         */
+        TileTask(int x, int y, int w, int h, int columns, int from, int to, Tile tile) {
+            this.x = x;
+            this.y = y;
+            this.w = w;
+            this.h = h;
+            this.columns = columns;
+            this.from = from;
+            this.to = to;
+            this.tile = tile;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(
+                    new TileTask(x, y, w, h, columns, from, middle, tile),
+                    new TileTask(x, y, w, h, columns, middle, to, tile)
+                );
+                return;
+            }
+            int tx = x + (from % columns) * tileSize;
+            int ty = y + (from / columns) * tileSize;
+            tile.compute(tx, ty, Math.min(tx + tileSize, w), Math.min(ty + tileSize, h));
+        }
+    }
+}
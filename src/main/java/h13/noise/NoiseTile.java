@@ -0,0 +1,68 @@
+package h13.noise;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The key of a tile of rendered noise values, which consists of the values of a Perlin noise for an area.
+ *
+ * <p>The {@linkplain #fingerprint() fingerprint} of a tile is stable across runs if the fingerprint of the noise is,
+ * which holds for the noises of this package, so tiles can be persisted, e.g. in a
+ * {@link h13.util.DiskCache DiskCache}.
+ *
+ * @param noise the fingerprint of the Perlin noise
+ * @param x     the x-coordinate of the starting point of the area
+ * @param y     the y-coordinate of the starting point of the area
+ * @param w     the width of the area
+ * @param h     the height of the area
+ * @see PerlinNoise#fingerprint()
+ */
+public record NoiseTile(long noise, int x, int y, int w, int h) {
+
+    /**
+     * Returns the key of the tile of the specified Perlin noise for the specified area.
+     *
+     * @param noise the Perlin noise
+     * @param x     the x-coordinate of the starting point of the area
+     * @param y     the y-coordinate of the starting point of the area
+     * @param w     the width of the area
+     * @param h     the height of the area
+     * @return the key of the tile of the specified Perlin noise for the specified area
+     * @throws IllegalArgumentException if the Perlin noise does not {@linkplain PerlinNoise#hasFingerprint() have a
+     *                                  fingerprint}
+     */
+    public static NoiseTile of(PerlinNoise noise, int x, int y, int w, int h) {
+        if (!noise.hasFingerprint()) {
+            throw new IllegalArgumentException("The noise must have a fingerprint");
+        }
+        return new NoiseTile(noise.fingerprint(), x, y, w, h);
+    }
+
+    /**
+     * Returns the encoding of this tile, which consists of the fingerprint of the noise and the area, so tiles can be
+     * told apart even if their {@linkplain #fingerprint() fingerprints} collide.
+     *
+     * @return the encoding of this tile
+     */
+    public byte[] toBytes() {
+        return ByteBuffer.allocate(Long.BYTES + 4 * Integer.BYTES)
+            .putLong(noise)
+            .putInt(x)
+            .putInt(y)
+            .putInt(w)
+            .putInt(h)
+            .array();
+    }
+
+    /**
+     * Returns a 64-bit fingerprint of this tile which is derived from the fingerprint of the noise and the area.
+     *
+     * @return the fingerprint of this tile
+     */
+    public long fingerprint() {
+        long fingerprint = Fingerprints.combine(Fingerprints.of(NoiseTile.class), noise);
+        fingerprint = Fingerprints.combine(fingerprint, x);
+        fingerprint = Fingerprints.combine(fingerprint, y);
+        fingerprint = Fingerprints.combine(fingerprint, w);
+        return Fingerprints.combine(fingerprint, h);
+    }
+}
@@ -24,6 +24,11 @@ public class NormalizedPerlinNoise extends DelegatePerlinNoise implements Perlin
         super(noise);
     }
 
+    @Override
+    protected NormalizedPerlinNoise withDelegate(PerlinNoise delegate) {
+        return new NormalizedPerlinNoise(delegate);
+    }
+
     @Override
     public double compute(int x, int y) {
         return (delegate.compute(x, y) + 1) / 2;
@@ -33,4 +38,26 @@ public class NormalizedPerlinNoise extends DelegatePerlinNoise implements Perlin
     public double compute(double x, double y) {
         return (delegate.compute(x, y) + 1) / 2;
     }
+
+    @Override
+    public void compute(int x, int y, int w, int h, double[] out, int offset, int stride) {
+        delegate.compute(x, y, w, h, out, offset, stride);
+        for (int yi = y; yi < h; yi++) {
+            int index = offset + (yi - y) * stride - x;
+            for (int xi = x; xi < w; xi++) {
+                out[index + xi] = (out[index + xi] + 1) / 2;
+            }
+        }
+    }
+
+    @Override
+    public void compute(int x, int y, int w, int h, float[] out, int offset, int stride) {
+        delegate.compute(x, y, w, h, out, offset, stride);
+        for (int yi = y; yi < h; yi++) {
+            int index = offset + (yi - y) * stride - x;
+            for (int xi = x; xi < w; xi++) {
+                out[index + xi] = (out[index + xi] + 1) / 2;
+            }
+        }
+    }
 }
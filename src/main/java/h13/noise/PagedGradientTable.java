@@ -0,0 +1,255 @@
+package h13.noise;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A gradient table which generates the gradient vectors of a bounded lattice from a seed page by page on first access,
+ * so that its construction time and memory scale with the area which is actually evaluated instead of the declared
+ * lattice dimension.
+ *
+ * <p>A page holds the gradient vectors of a tile of {@value GradientTiles#TILE_SIZE} x
+ * {@value GradientTiles#TILE_SIZE} corners and is generated like the tiles of {@link GradientTiles}, so the gradient
+ * vectors are the same as the ones of {@link PerlinNoise#seeded(int, int, double, long)}. The slot of a corner encodes
+ * its page in the upper and its position within the page in the lower bits.
+ *
+ * <p>Unlike the gradient vectors, the {@linkplain #fingerprint() fingerprint} differs from the one of the seeded
+ * table, since it is derived from the seed instead of the gradient vectors. Noises using either table have the same
+ * values but are not equal, so caches keep them apart.
+ *
+ * <p>The pages are owned by a {@link GradientLattice}, which the table views with its own dimension. Tables viewing
+ * the same lattice share all pages they have in common, regardless of their dimension. A table holds the pages it has
+ * accessed, so the lattice keeps them for all other views as long as the table is reachable.
+ *
+ * <p>The slots are only defined for corners within the lattice dimension. {@link #index(int, int)} checks the
+ * coordinates, since a corner beyond the width or height would otherwise silently map to a slot of the last page.
+ *
+ * <p>The table is thread-safe. If several threads access a missing page at the same time, it is generated only once.
+ *
+ * @see PerlinNoise#paged(int, int, double, long)
+ */
+public class PagedGradientTable implements GradientTable {
+
+    /**
+     * The binary logarithm of the number of corners per page row.
+     */
+    private static final int PAGE_SHIFT = Integer.numberOfTrailingZeros(GradientTiles.TILE_SIZE);
+
+    /**
+     * The mask which selects the position of a corner within its page row.
+     */
+    private static final int PAGE_MASK = GradientTiles.TILE_SIZE - 1;
+
+    /**
+     * The number of interleaved components of a page.
+     */
+    private static final int PAGE_LENGTH = GradientLattice.PAGE_LENGTH;
+
+    /**
+     * The number of lattice corners per row.
+     */
+    private final int width;
+
+    /**
+     * The number of lattice rows.
+     */
+    private final int height;
+
+    /**
+     * The lattice which owns the pages.
+     */
+    private final GradientLattice lattice;
+
+    /**
+     * The number of pages per row of pages.
+     */
+    private final int pagesPerRow;
+
+    /**
+     * Whether the lattice may be viewed by other tables as well, in which case the pages are not counted by this table.
+     */
+    private final boolean shared;
+
+    /**
+     * The pages of the lattice which have been accessed through this table, or {@code null} for the pages which have
+     * not been accessed yet.
+     */
+    private final AtomicReferenceArray<double[]> pages;
+
+    /**
+     * Constructs a gradient table with the specified lattice dimension whose gradient vectors are generated from the
+     * specified seed on first access. The pages are not shared with other tables.
+     *
+     * @param width  the number of lattice corners per row
+     * @param height the number of lattice rows
+     * @param seed   the seed used to generate the gradient vectors
+     * @throws IllegalArgumentException if the width or height is negative or the lattice is too large to be indexed
+     */
+    public PagedGradientTable(int width, int height, long seed) {
+        this(new GradientLattice(seed), width, height, false);
+    }
+
+    /**
+     * Constructs a gradient table with the specified lattice dimension which views the specified lattice.
+     *
+     * @param lattice the lattice which owns the pages
+     * @param width   the number of lattice corners per row
+     * @param height  the number of lattice rows
+     * @throws IllegalArgumentException if the width or height is negative or the lattice is too large to be indexed
+     * @see GradientLattice#view(int, int)
+     */
+    PagedGradientTable(GradientLattice lattice, int width, int height) {
+        this(lattice, width, height, true);
+    }
+
+    /**
+     * Constructs a gradient table with the specified lattice dimension which views the specified lattice.
+     *
+     * @param lattice the lattice which owns the pages
+     * @param width   the number of lattice corners per row
+     * @param height  the number of lattice rows
+     * @param shared  whether the lattice may be viewed by other tables as well
+     * @throws IllegalArgumentException if the width or height is negative or the lattice is too large to be indexed
+     */
+    private PagedGradientTable(GradientLattice lattice, int width, int height, boolean shared) {
+        if (width < 0 || height < 0) {
+            throw new IllegalArgumentException("Width and height cannot be negative");
+        }
+        long pagesPerRow = (width + PAGE_MASK) >> PAGE_SHIFT;
+        long pageCount = pagesPerRow * ((height + PAGE_MASK) >> PAGE_SHIFT);
+        if (pageCount << (2 * PAGE_SHIFT) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Lattice too large: %d x %d".formatted(width, height));
+        }
+        this.width = width;
+        this.height = height;
+        this.lattice = lattice;
+        this.pagesPerRow = (int) pagesPerRow;
+        this.shared = shared;
+        this.pages = new AtomicReferenceArray<>((int) pageCount);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IndexOutOfBoundsException if the corner is not within the lattice dimension
+     */
+    @Override
+    public int index(int x, int y) {
+        Objects.checkIndex(x, width);
+        Objects.checkIndex(y, height);
+        int page = (y >> PAGE_SHIFT) * pagesPerRow + (x >> PAGE_SHIFT);
+        return (page << (2 * PAGE_SHIFT)) | ((y & PAGE_MASK) << PAGE_SHIFT) | (x & PAGE_MASK);
+    }
+
+    /**
+     * Returns the components of the page of the specified slot, generating the page if necessary.
+     *
+     * @param index the slot of the gradient vector
+     * @return the interleaved x and y components of the gradient vectors of the page
+     */
+    private double[] page(int index) {
+        int page = index >>> (2 * PAGE_SHIFT);
+        double[] components = pages.get(page);
+        if (components == null) {
+            // The lattice returns the same page to all threads while any of them holds it, so racing writes agree
+            components = lattice.page(page % pagesPerRow, page / pagesPerRow);
+            pages.set(page, components);
+        }
+        return components;
+    }
+
+    @Override
+    public double getX(int index) {
+        return page(index)[2 * (index & (PAGE_LENGTH / 2 - 1))];
+    }
+
+    @Override
+    public double getY(int index) {
+        return page(index)[2 * (index & (PAGE_LENGTH / 2 - 1)) + 1];
+    }
+
+    @Override
+    public double dot(int index, double dx, double dy) {
+        double[] components = page(index);
+        int slot = 2 * (index & (PAGE_LENGTH / 2 - 1));
+        return components[slot] * dx + components[slot + 1] * dy;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The fingerprint is derived from the seed and the lattice dimension, so no page has to be generated.
+     */
+    @Override
+    public long fingerprint() {
+        long fingerprint = Fingerprints.combine(Fingerprints.of(PagedGradientTable.class), lattice.getSeed());
+        return Fingerprints.combine(Fingerprints.combine(fingerprint, width), height);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>If this table owns its lattice, all pages covered by this table are counted, whether they have been
+     * generated yet or not, so the size is the bound the table grows to and does not change while it is cached. If the
+     * lattice may be viewed by other tables, the pages are shared and counted by none of them, since removing a single
+     * view frees none of its pages while another view holds them. The memory of a shared lattice is reported by
+     * {@link GradientLattice#retainedSize()}.
+     */
+    @Override
+    public long retainedSize() {
+        return shared ? 0 : (long) Double.BYTES * PAGE_LENGTH * pages.length();
+    }
+
+    /**
+     * Returns the number of lattice corners per row.
+     *
+     * @return the number of lattice corners per row
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the number of lattice rows.
+     *
+     * @return the number of lattice rows
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns the seed used to generate the gradient vectors.
+     *
+     * @return the seed used to generate the gradient vectors
+     */
+    public long getSeed() {
+        return lattice.getSeed();
+    }
+
+    /**
+     * Returns the lattice which owns the pages.
+     *
+     * @return the lattice which owns the pages
+     */
+    public GradientLattice getLattice() {
+        return lattice;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        PagedGradientTable that = (PagedGradientTable) o;
+        return width == that.width && height == that.height && getSeed() == that.getSeed();
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(fingerprint());
+    }
+}
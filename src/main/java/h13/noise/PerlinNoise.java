@@ -2,6 +2,8 @@ package h13.noise;
 
 import javafx.geometry.Point2D;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Random;
 
 /**
@@ -15,6 +17,238 @@ import java.util.Random;
  */
 public interface PerlinNoise extends GradientNoise {
 
+    /**
+     * Returns a simple Perlin noise object whose gradient vectors are derived from the specified seed and the lattice
+     * coordinates using an integer hash function instead of a precomputed gradient table.
+     *
+     * <p>The noise can be evaluated at arbitrary coordinates, including negative ones and coordinates outside the
+     * noise domain, while requiring constant memory. The noise domain only determines the default area computed by
+     * {@link #compute()}.
+     *
+     * @param width     the width of the noise domain
+     * @param height    the height of the noise domain
+     * @param frequency the frequency of the Perlin noise
+     * @param seed      the seed used to derive the gradient vectors
+     * @return a simple Perlin noise object with procedural gradient vectors
+     * @see HashGradientTable
+     */
+    static PerlinNoise hashed(int width, int height, double frequency, long seed) {
+        return new SimplePerlinNoise(width, height, frequency, new Random(seed), new HashGradientTable(seed));
+    }
+
+    /**
+     * Returns a simple Perlin noise object with the specified noise domain and frequency whose gradient vectors are
+     * generated from the specified seed tile by tile in parallel. The gradient vectors only depend on the seed and the
+     * lattice coordinates, not on the number of threads, but they differ from the ones of a {@link SimplePerlinNoise}
+     * constructed with a random generator of the same seed.
+     *
+     * @param width     the width of the noise domain
+     * @param height    the height of the noise domain
+     * @param frequency the frequency of the Perlin noise
+     * @param seed      the seed used to generate the gradient vectors
+     * @return a simple Perlin noise object whose gradient vectors are generated from the specified seed
+     * @see GradientTiles
+     */
+    static PerlinNoise seeded(int width, int height, double frequency, long seed) {
+        if (width < 0 || height < 0) {
+            throw new IllegalArgumentException("Width and height cannot be negative");
+        }
+        return new SimplePerlinNoise(
+            width,
+            height,
+            frequency,
+            new Random(seed),
+            new ArrayGradientTable(width + 1, height + 1, GradientTiles.generate(width + 1, height + 1, seed))
+        );
+    }
+
+    /**
+     * Returns a simple Perlin noise object with the specified noise domain and frequency whose gradient vectors are
+     * generated from the specified seed page by page when they are first accessed. The noise values are the same as
+     * the ones of {@link #seeded(int, int, double, long)}, but the construction time and memory scale with the
+     * evaluated area instead of the noise domain. The fingerprint is derived from the seed instead of the gradient
+     * vectors, so the noise is not {@linkplain Object#equals(Object) equal} to the seeded one.
+     *
+     * @param width     the width of the noise domain
+     * @param height    the height of the noise domain
+     * @param frequency the frequency of the Perlin noise
+     * @param seed      the seed used to generate the gradient vectors
+     * @return a simple Perlin noise object whose gradient vectors are generated on first access
+     * @see PagedGradientTable
+     */
+    static PerlinNoise paged(int width, int height, double frequency, long seed) {
+        if (width < 0 || height < 0) {
+            throw new IllegalArgumentException("Width and height cannot be negative");
+        }
+        return new SimplePerlinNoise(
+            width,
+            height,
+            frequency,
+            new Random(seed),
+            new PagedGradientTable(width + 1, height + 1, seed)
+        );
+    }
+
+    /**
+     * Returns a simple Perlin noise object with the specified noise domain and frequency whose gradient vectors are
+     * taken from the {@linkplain GradientLattice#shared(long) shared lattice} of the specified seed. The noise values
+     * are the same as the ones of {@link #paged(int, int, double, long)}, but noises of any domain with the same seed
+     * share their gradient vectors, so a larger domain only generates the pages which are not present yet. The shared
+     * gradient vectors are not counted by the {@linkplain #retainedSize() retained size} of the noise, but by the one
+     * of the lattice.
+     *
+     * @param width     the width of the noise domain
+     * @param height    the height of the noise domain
+     * @param frequency the frequency of the Perlin noise
+     * @param seed      the seed used to generate the gradient vectors
+     * @return a simple Perlin noise object whose gradient vectors are shared with all noises of the same seed
+     * @see GradientLattice
+     */
+    static PerlinNoise shared(int width, int height, double frequency, long seed) {
+        if (width < 0 || height < 0) {
+            throw new IllegalArgumentException("Width and height cannot be negative");
+        }
+        return new SimplePerlinNoise(
+            width,
+            height,
+            frequency,
+            new Random(seed),
+            GradientLattice.shared(seed).view(width + 1, height + 1)
+        );
+    }
+
+    /**
+     * Returns a simple Perlin noise object with the specified noise domain and frequency whose gradient vectors are
+     * generated from the specified seed directly into a buffer outside the Java heap, so that large gradient tables do
+     * not increase the pauses of the garbage collector. The gradient vectors are the same as the ones of
+     * {@link #seeded(int, int, double, long)} with the same arguments.
+     *
+     * @param width     the width of the noise domain
+     * @param height    the height of the noise domain
+     * @param frequency the frequency of the Perlin noise
+     * @param seed      the seed used to generate the gradient vectors
+     * @return a simple Perlin noise object whose gradient vectors are stored outside the Java heap
+     * @throws IllegalArgumentException if the width or height is negative or the gradient vectors exceed 2 GiB
+     * @see BufferGradientTable#allocate(int, int, long)
+     */
+    static PerlinNoise offHeap(int width, int height, double frequency, long seed) {
+        if (width < 0 || height < 0) {
+            throw new IllegalArgumentException("Width and height cannot be negative");
+        }
+        return new SimplePerlinNoise(
+            width,
+            height,
+            frequency,
+            new Random(seed),
+            BufferGradientTable.allocate(width + 1, height + 1, seed)
+        );
+    }
+
+    /**
+     * Returns a simple Perlin noise object with the specified noise domain and frequency whose gradient vectors are
+     * mapped from the specified file, so that they are shared with other processes through the page cache and survive
+     * restarts. If the file does not store the gradient vectors of the specified seed yet, they are generated directly
+     * into it. The gradient vectors are the same as the ones of {@link #seeded(int, int, double, long)} with the same
+     * arguments.
+     *
+     * @param file      the file which stores the gradient vectors
+     * @param width     the width of the noise domain
+     * @param height    the height of the noise domain
+     * @param frequency the frequency of the Perlin noise
+     * @param seed      the seed used to generate the gradient vectors
+     * @return a simple Perlin noise object whose gradient vectors are mapped from the specified file
+     * @throws IllegalArgumentException if the width or height is negative or the file would exceed 2 GiB
+     * @throws IOException              if the file cannot be read or written
+     * @see BufferGradientTable#map(Path, int, int, long)
+     */
+    static PerlinNoise mapped(Path file, int width, int height, double frequency, long seed) throws IOException {
+        if (width < 0 || height < 0) {
+            throw new IllegalArgumentException("Width and height cannot be negative");
+        }
+        return new SimplePerlinNoise(
+            width,
+            height,
+            frequency,
+            new Random(seed),
+            BufferGradientTable.map(file, width + 1, height + 1, seed)
+        );
+    }
+
+    /**
+     * Returns a simple Perlin noise object with the specified noise domain and frequency whose gradient vectors are
+     * generated from the specified seed and quantized with the {@linkplain QuantizedGradientTable#DEFAULT_ENCODING
+     * default encoding}, which approximates the gradient vectors of {@link #seeded(int, int, double, long)} with the
+     * same arguments with 1/8 of the memory.
+     *
+     * @param width     the width of the noise domain
+     * @param height    the height of the noise domain
+     * @param frequency the frequency of the Perlin noise
+     * @param seed      the seed used to generate the gradient vectors
+     * @return a simple Perlin noise object whose gradient vectors are quantized
+     * @see QuantizedGradientTable
+     */
+    static PerlinNoise quantized(int width, int height, double frequency, long seed) {
+        return quantized(width, height, frequency, seed, QuantizedGradientTable.DEFAULT_ENCODING);
+    }
+
+    /**
+     * Returns a simple Perlin noise object with the specified noise domain and frequency whose gradient vectors are
+     * generated from the specified seed and quantized with the specified encoding while they are generated, so that
+     * they require 8 to 16 times less memory. The gradient vectors are quantized from the ones of
+     * {@link #seeded(int, int, double, long)} with the same arguments.
+     *
+     * @param width     the width of the noise domain
+     * @param height    the height of the noise domain
+     * @param frequency the frequency of the Perlin noise
+     * @param seed      the seed used to generate the gradient vectors
+     * @param encoding  the encoding of the gradient vectors
+     * @return a simple Perlin noise object whose gradient vectors are quantized with the specified encoding
+     * @throws IllegalArgumentException if the width or height is negative
+     * @see QuantizedGradientTable#generate(int, int, long, QuantizedGradientTable.Encoding)
+     */
+    static PerlinNoise quantized(
+        int width,
+        int height,
+        double frequency,
+        long seed,
+        QuantizedGradientTable.Encoding encoding
+    ) {
+        if (width < 0 || height < 0) {
+            throw new IllegalArgumentException("Width and height cannot be negative");
+        }
+        return new SimplePerlinNoise(
+            width,
+            height,
+            frequency,
+            new Random(seed),
+            QuantizedGradientTable.generate(width + 1, height + 1, seed, encoding)
+        );
+    }
+
+    /**
+     * Returns a simple Perlin noise object with the specified noise domain, frequency and random generator whose
+     * gradient vectors are stored in square blocks instead of row by row, so that the corners of a lattice cell share
+     * cache lines. The gradient vectors are the same as the ones of a {@link SimplePerlinNoise} constructed with the
+     * same arguments.
+     *
+     * @param width           the width of the noise domain
+     * @param height          the height of the noise domain
+     * @param frequency       the frequency of the Perlin noise
+     * @param randomGenerator the random generator used for generating gradient vectors
+     * @return a simple Perlin noise object whose gradient vectors are stored in square blocks
+     * @see BlockedGradientTable
+     */
+    static PerlinNoise blocked(int width, int height, double frequency, Random randomGenerator) {
+        SimplePerlinNoise noise = new SimplePerlinNoise(width, height, frequency, randomGenerator);
+        return new SimplePerlinNoise(
+            width,
+            height,
+            frequency,
+            randomGenerator,
+            BlockedGradientTable.of((ArrayGradientTable) noise.getGradientTable())
+        );
+    }
+
     /**
      * Returns an improved version of the specified Perlin noise object.
      *
@@ -26,6 +260,19 @@ public interface PerlinNoise extends GradientNoise {
         return new ImprovedPerlinNoise(noise, permutationTable);
     }
 
+    /**
+     * Returns an improved version of the specified Perlin noise object which selects one of 8 fixed gradient vectors
+     * from the permuted hash of each lattice corner instead of reading random gradient vectors from a table.
+     *
+     * @param noise            the Perlin noise object to improve
+     * @param permutationTable the permutation table used to improve the Perlin noise
+     * @return an improved version of the specified Perlin noise object with fixed gradient vectors
+     * @see FixedGradientTable
+     */
+    static PerlinNoise improvedWithFixedGradients(PerlinNoise noise, int[] permutationTable) {
+        return new ImprovedPerlinNoise(noise, permutationTable, new FixedGradientTable());
+    }
+
     /**
      * Returns an improved version of the specified Perlin noise object.
      *
@@ -47,6 +294,21 @@ public interface PerlinNoise extends GradientNoise {
         return new NormalizedPerlinNoise(noise);
     }
 
+    /**
+     * Returns a specialized evaluator for the specified Perlin noise object if it is a chain of a simple or improved
+     * Perlin noise, an optional fractal Perlin noise and an optional normalization. The evaluator computes all octaves
+     * of the chain in a single loop without dispatching through the Perlin noise objects and produces the same noise
+     * values as the chain.
+     *
+     * @param noise the Perlin noise object to compile
+     * @return a specialized evaluator for the specified Perlin noise object, or the object itself if it cannot be
+     *         compiled
+     * @see CompiledPerlinNoise
+     */
+    static PerlinNoise compile(PerlinNoise noise) {
+        return CompiledPerlinNoise.compile(noise);
+    }
+
     /**
      * Returns the random generator used by this Perlin noise object.
      *
@@ -93,11 +355,34 @@ public interface PerlinNoise extends GradientNoise {
     /**
      * Sets the frequency of the Perlin noise to the specified value.
      *
+     * <p>This modifies the Perlin noise object for all of its users. If the object is shared, e.g. through a cache or
+     * between threads, use {@link #withFrequency(double)} instead.
+     *
      * @param frequency the new frequency of the Perlin noise
      * @throws IllegalArgumentException if the specified frequency is not in the range [0, 1]
      */
     void setFrequency(double frequency);
 
+    /**
+     * Returns a Perlin noise object which is equal to this one except for the specified frequency. This object is
+     * not modified, and the returned object shares the gradient vectors and permutation array of this object, so the
+     * derivation is cheap and both objects can be used concurrently.
+     *
+     * <p>The default implementation returns a {@link ScaledPerlinNoise} which scales the coordinates of this object
+     * by the specified frequency itself, since the gradient vectors of an arbitrary implementation cannot be shared.
+     * The implementations of this package override it.
+     *
+     * @param frequency the frequency of the returned Perlin noise
+     * @return a Perlin noise object with the specified frequency
+     * @throws IllegalArgumentException if the specified frequency is not in the range [0, 1]
+     */
+    default PerlinNoise withFrequency(double frequency) {
+        if (Double.compare(frequency, getFrequency()) == 0) {
+            return this;
+        }
+        return new ScaledPerlinNoise(this, frequency);
+    }
+
     /**
      * Applies the fade function to the given value to achieve a fading effect. The fade function is used to reduce the
      * influence of gradient vectors as the distance from the corner vertex increases. This fading effect ensures that
@@ -119,6 +404,49 @@ public interface PerlinNoise extends GradientNoise {
      */
     double interpolate(double x1, double x2, double alpha);
 
+    /**
+     * Returns a 64-bit fingerprint of the inputs which determine the noise values of this Perlin noise object, e.g.
+     * its dimension, frequency, gradient vectors and permutation array. Equal Perlin noise objects have the same
+     * fingerprint, and different ones have different fingerprints with a probability of about 1 - 2^-64, so the
+     * fingerprint can be used to compare and hash Perlin noise objects in constant time.
+     *
+     * <p>The default implementation returns the hash code of this Perlin noise object, which does not identify its
+     * noise values, so such Perlin noise objects do not {@linkplain #hasFingerprint() have a fingerprint}.
+     *
+     * @return a 64-bit fingerprint of this Perlin noise object
+     */
+    default long fingerprint() {
+        return hashCode();
+    }
+
+    /**
+     * Returns whether the {@linkplain #fingerprint() fingerprint} of this Perlin noise object is derived from the
+     * inputs which determine its noise values. Only Perlin noise objects with a fingerprint may be used as keys of
+     * caches, since the values of other Perlin noise objects could be mixed up.
+     *
+     * <p>The default implementation returns {@code false}.
+     *
+     * @return {@code true} if the fingerprint of this Perlin noise object identifies its noise values
+     */
+    default boolean hasFingerprint() {
+        return false;
+    }
+
+    /**
+     * Returns the approximate number of bytes retained by this Perlin noise object, which is dominated by its gradient
+     * vectors and permutation array. Data shared with other Perlin noise objects, e.g. through
+     * {@link #withFrequency(double)}, is included, so the size can be used to bound caches of Perlin noise objects.
+     * Since caches weigh their entries once, the size must not change while this object is used, so data which is
+     * generated lazily is counted as if it was fully generated.
+     *
+     * <p>The default implementation returns 0.
+     *
+     * @return the approximate number of bytes retained by this Perlin noise object
+     */
+    default long retainedSize() {
+        return 0;
+    }
+
     /**
      * Computes the gradient noise value at the specified noise domain coordinates.
      * It's recommended to multiply the coordinates by the frequency to achieve visible results.
@@ -0,0 +1,368 @@
+package h13.noise;
+
+import java.util.Arrays;
+
+/**
+ * A gradient table which stores the gradient vectors of a bounded lattice in a compact encoding of one or two bytes
+ * per lattice corner instead of two doubles.
+ *
+ * <p>The vectors are stored row by row like in {@link ArrayGradientTable}, and the corner (x, y) is stored in slot
+ * {@code width * y + x}. The gradient vectors are quantized when the table is created, so the noise values differ
+ * from the ones of the original table, see {@link Encoding}. Each encoding is decoded by its own subclass, so the
+ * accessors do not branch on the encoding.
+ *
+ * @see PerlinNoise#quantized(int, int, double, long, Encoding)
+ */
+public abstract class QuantizedGradientTable implements GradientTable {
+
+    /**
+     * The number of directions of the {@link Encoding#ANGLE} encoding.
+     */
+    private static final int DIRECTIONS = 256;
+
+    /**
+     * The root mean square length of the random gradient vectors of {@link AbstractPerlinNoise}, whose components
+     * are uniformly distributed in [-1, 1].
+     */
+    private static final double RMS_LENGTH = Math.sqrt(2.0 / 3.0);
+
+    /**
+     * The x components of the directions of the {@link Encoding#ANGLE} encoding, scaled by {@link #RMS_LENGTH}.
+     */
+    private static final double[] COS = new double[DIRECTIONS];
+
+    /**
+     * The y components of the directions of the {@link Encoding#ANGLE} encoding, scaled by {@link #RMS_LENGTH}.
+     */
+    private static final double[] SIN = new double[DIRECTIONS];
+
+    /**
+     * The scale which maps a quantized component of the {@link Encoding#COMPONENTS} encoding to the interval [-1, 1].
+     */
+    private static final double COMPONENT_SCALE = 1.0 / Byte.MAX_VALUE;
+
+    static {
+        for (int i = 0; i < DIRECTIONS; i++) {
+            double angle = 2 * Math.PI * i / DIRECTIONS;
+            COS[i] = Math.cos(angle) * RMS_LENGTH;
+            SIN[i] = Math.sin(angle) * RMS_LENGTH;
+        }
+    }
+
+    /**
+     * The encodings of the gradient vectors.
+     */
+    public enum Encoding {
+
+        /**
+         * Stores one of 256 directions per corner in a single byte and decodes it through a cosine and sine lookup
+         * table, which requires 1/16 of the memory of {@link ArrayGradientTable}. The directions are scaled to the
+         * root mean square length of the random gradient vectors, so the noise has the same character and a similar
+         * range of values, but the lengths of the individual gradient vectors are lost.
+         *
+         * <p>This is not an approximation of the original noise: the components deviate from the original ones by
+         * about 0.21 on average (root mean square) and by up to about 0.81 for short gradient vectors, so the noise
+         * values differ visibly. Use {@link #COMPONENTS} to approximate the original noise.
+         */
+        ANGLE(1),
+
+        /**
+         * Stores each component rounded to a signed byte, which requires 1/8 of the memory of
+         * {@link ArrayGradientTable}. The components deviate by at most 1/254, so the noise values deviate by less
+         * than one step of an 8-bit color channel.
+         */
+        COMPONENTS(2);
+
+        /**
+         * The number of bytes per lattice corner.
+         */
+        private final int bytes;
+
+        /**
+         * Constructs an encoding with the specified number of bytes per lattice corner.
+         *
+         * @param bytes the number of bytes per lattice corner
+         */
+        Encoding(int bytes) {
+            this.bytes = bytes;
+        }
+
+        /**
+         * Returns the number of bytes per lattice corner.
+         *
+         * @return the number of bytes per lattice corner
+         */
+        public int getBytes() {
+            return bytes;
+        }
+    }
+
+    /**
+     * The encoding which {@link PerlinNoise#quantized(int, int, double, long)} uses, since it approximates the
+     * original gradient vectors.
+     */
+    public static final Encoding DEFAULT_ENCODING = Encoding.COMPONENTS;
+
+    /**
+     * The number of lattice corners per row.
+     */
+    private final int width;
+
+    /**
+     * The number of lattice rows.
+     */
+    private final int height;
+
+    /**
+     * The encoding of the gradient vectors.
+     */
+    private final Encoding encoding;
+
+    /**
+     * The encoded gradient vectors, which are decoded by the subclasses.
+     */
+    final byte[] codes;
+
+    /**
+     * The fingerprint of the gradient vectors, or 0 if it has not been computed yet.
+     */
+    private long fingerprint;
+
+    /**
+     * Constructs a gradient table with the specified lattice dimension and encoded gradient vectors.
+     *
+     * @param width    the number of lattice corners per row
+     * @param height   the number of lattice rows
+     * @param encoding the encoding of the gradient vectors
+     * @param codes    the encoded gradient vectors
+     * @throws IllegalArgumentException if the number of codes does not match the lattice dimension
+     */
+    private QuantizedGradientTable(int width, int height, Encoding encoding, byte[] codes) {
+        if (codes.length != width * height * encoding.bytes) {
+            throw new IllegalArgumentException("Expected %d codes, but got %d"
+                .formatted(width * height * encoding.bytes, codes.length));
+        }
+        this.width = width;
+        this.height = height;
+        this.encoding = encoding;
+        this.codes = codes;
+    }
+
+    /**
+     * Returns a gradient table with the specified lattice dimension and encoded gradient vectors. The codes are not
+     * copied and must not be modified afterwards.
+     *
+     * @param width    the number of lattice corners per row
+     * @param height   the number of lattice rows
+     * @param encoding the encoding of the gradient vectors
+     * @param codes    the encoded gradient vectors
+     * @return a gradient table with the specified encoded gradient vectors
+     * @throws IllegalArgumentException if the number of codes does not match the lattice dimension
+     */
+    public static QuantizedGradientTable of(int width, int height, Encoding encoding, byte[] codes) {
+        return encoding == Encoding.ANGLE
+            ? new AngleTable(width, height, codes)
+            : new ComponentTable(width, height, codes);
+    }
+
+    /**
+     * Quantizes the gradient vectors of the specified gradient table with the specified encoding.
+     *
+     * @param table    the gradient table to quantize
+     * @param encoding the encoding of the gradient vectors
+     * @return a gradient table with the quantized gradient vectors of the specified gradient table
+     */
+    public static QuantizedGradientTable quantize(ArrayGradientTable table, Encoding encoding) {
+        int slots = table.getWidth() * table.getHeight();
+        byte[] codes = new byte[slots * encoding.bytes];
+        for (int i = 0; i < slots; i++) {
+            encode(encoding, table.getX(i), table.getY(i), codes, i);
+        }
+        return of(table.getWidth(), table.getHeight(), encoding, codes);
+    }
+
+    /**
+     * Generates the gradient vectors of a lattice with the specified dimension from the specified seed and quantizes
+     * them tile by tile while they are generated, so the full-precision gradient vectors are never stored. The
+     * gradient vectors are quantized from the ones of {@link PerlinNoise#seeded(int, int, double, long)}.
+     *
+     * @param width    the number of lattice corners per row
+     * @param height   the number of lattice rows
+     * @param seed     the seed used to generate the gradient vectors
+     * @param encoding the encoding of the gradient vectors
+     * @return a gradient table with the quantized gradient vectors generated from the specified seed
+     * @throws IllegalArgumentException if the width or height is negative
+     */
+    public static QuantizedGradientTable generate(int width, int height, long seed, Encoding encoding) {
+        if (width < 0 || height < 0) {
+            throw new IllegalArgumentException("Width and height cannot be negative");
+        }
+        byte[] codes = new byte[width * height * encoding.bytes];
+        GradientTiles.forEachTile(
+            width,
+            height,
+            NoiseScheduler.getDefault().getPool(),
+            (tx, ty, columns, rows, offset) -> {
+                double[] components = new double[2 * columns * rows];
+                GradientTiles.fill(seed, tx, ty, columns, rows, components, 0, 2 * columns);
+                // The offset counts the interleaved components of the lattice
+                int first = offset / 2;
+                for (int row = 0; row < rows; row++) {
+                    for (int column = 0; column < columns; column++) {
+                        int index = 2 * (row * columns + column);
+                        encode(encoding, components[index], components[index + 1], codes, first + row * width + column);
+                    }
+                }
+            }
+        );
+        return of(width, height, encoding, codes);
+    }
+
+    /**
+     * Encodes the specified gradient vector with the specified encoding and stores it in the specified slot.
+     *
+     * @param encoding the encoding of the gradient vector
+     * @param x        the x component of the gradient vector
+     * @param y        the y component of the gradient vector
+     * @param codes    the encoded gradient vectors to store the gradient vector in
+     * @param slot     the slot of the gradient vector
+     */
+    private static void encode(Encoding encoding, double x, double y, byte[] codes, int slot) {
+        if (encoding == Encoding.ANGLE) {
+            double turns = Math.atan2(y, x) / (2 * Math.PI);
+            codes[slot] = (byte) Math.round(turns * DIRECTIONS);
+        } else {
+            codes[2 * slot] = (byte) Math.round(x * Byte.MAX_VALUE);
+            codes[2 * slot + 1] = (byte) Math.round(y * Byte.MAX_VALUE);
+        }
+    }
+
+    @Override
+    public int index(int x, int y) {
+        return width * y + x;
+    }
+
+    @Override
+    public long fingerprint() {
+        long fingerprint = this.fingerprint;
+        if (fingerprint == 0) {
+            fingerprint = Fingerprints.combine(Fingerprints.of(QuantizedGradientTable.class), encoding.ordinal());
+            fingerprint = Fingerprints.combine(fingerprint, Fingerprints.of(codes));
+            fingerprint = Fingerprints.combine(Fingerprints.combine(fingerprint, width), height);
+            // 0 marks a missing fingerprint
+            fingerprint = fingerprint == 0 ? 1 : fingerprint;
+            this.fingerprint = fingerprint;
+        }
+        return fingerprint;
+    }
+
+    @Override
+    public long retainedSize() {
+        return codes.length;
+    }
+
+    /**
+     * Returns the number of lattice corners per row.
+     *
+     * @return the number of lattice corners per row
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the number of lattice rows.
+     *
+     * @return the number of lattice rows
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns the encoding of the gradient vectors.
+     *
+     * @return the encoding of the gradient vectors
+     */
+    public Encoding getEncoding() {
+        return encoding;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        QuantizedGradientTable that = (QuantizedGradientTable) o;
+        return width == that.width && height == that.height && encoding == that.encoding
+            && Arrays.equals(codes, that.codes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(fingerprint());
+    }
+
+    /**
+     * A gradient table in the {@link Encoding#ANGLE} encoding.
+     */
+    private static final class AngleTable extends QuantizedGradientTable {
+
+        /**
+         * Constructs a gradient table with the specified lattice dimension and encoded directions.
+         *
+         * @param width  the number of lattice corners per row
+         * @param height the number of lattice rows
+         * @param codes  the encoded directions
+         */
+        AngleTable(int width, int height, byte[] codes) {
+            super(width, height, Encoding.ANGLE, codes);
+        }
+
+        @Override
+        public double getX(int index) {
+            return COS[codes[index] & 0xFF];
+        }
+
+        @Override
+        public double getY(int index) {
+            return SIN[codes[index] & 0xFF];
+        }
+
+        @Override
+        public double dot(int index, double dx, double dy) {
+            int direction = codes[index] & 0xFF;
+            return COS[direction] * dx + SIN[direction] * dy;
+        }
+    }
+
+    /**
+     * A gradient table in the {@link Encoding#COMPONENTS} encoding.
+     */
+    private static final class ComponentTable extends QuantizedGradientTable {
+
+        /**
+         * Constructs a gradient table with the specified lattice dimension and encoded components.
+         *
+         * @param width  the number of lattice corners per row
+         * @param height the number of lattice rows
+         * @param codes  the encoded components
+         */
+        ComponentTable(int width, int height, byte[] codes) {
+            super(width, height, Encoding.COMPONENTS, codes);
+        }
+
+        @Override
+        public double getX(int index) {
+            return codes[2 * index] * COMPONENT_SCALE;
+        }
+
+        @Override
+        public double getY(int index) {
+            return codes[2 * index + 1] * COMPONENT_SCALE;
+        }
+    }
+}
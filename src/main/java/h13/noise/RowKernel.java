@@ -0,0 +1,229 @@
+package h13.noise;
+
+/**
+ * A kernel which evaluates the Perlin noise formula of {@link SimplePerlinNoise#compute(double, double)} for a run of
+ * samples of a row which lie in the same lattice cell, so that the corner gradients only have to be loaded once per
+ * cell instead of once per sample. The offsets and faded offsets are precomputed per column and row, so the kernel
+ * only consists of multiplications and additions.
+ *
+ * <p>This implementation evaluates the samples one by one. If the incubating Vector API ({@code jdk.incubator.vector})
+ * is available at runtime, {@link #getInstance()} returns a kernel which evaluates multiple samples per instruction
+ * instead. Both kernels perform the same floating point operations in the same order as the scalar formula, so their
+ * results match {@link SimplePerlinNoise#compute(double, double)} within {@value #TOLERANCE}.
+ *
+ * @see SimplePerlinNoise
+ */
+class RowKernel {
+
+    /**
+     * The maximum absolute difference between the results of a kernel and the scalar formula.
+     */
+    static final double TOLERANCE = 1e-12;
+
+    /**
+     * The name of the module of the Vector API.
+     */
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+    /**
+     * The name of the kernel implementation using the Vector API.
+     */
+    private static final String VECTOR_KERNEL = "h13.noise.VectorRowKernel";
+
+    /**
+     * The kernel used for the evaluation.
+     */
+    private static final RowKernel INSTANCE = create();
+
+    /**
+     * Returns the kernel used for the evaluation, which uses the Vector API if it is available.
+     *
+     * @return the kernel used for the evaluation
+     */
+    static RowKernel getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Creates the kernel used for the evaluation. The vectorized kernel is only loaded if the Vector API module is
+     * present, otherwise the scalar kernel is used.
+     *
+     * @return the kernel used for the evaluation
+     */
+    private static RowKernel create() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent()) {
+            try {
+                return (RowKernel) Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Fall back to the scalar kernel
+            }
+        }
+        return new RowKernel();
+    }
+
+    /**
+     * Computes the noise values of the samples in the range [from, to) of the given row, which all lie in the lattice
+     * cell whose corner gradients are stored in the row, and stores them in the given buffer.
+     *
+     * @param row    the offsets and the corner gradients of the samples
+     * @param dy     the y offset of the samples from their lattice cell
+     * @param fdy    the faded y offset of the samples
+     * @param out    the buffer to store the computed noise values in
+     * @param offset the index of the buffer at which the value of the first sample of the row is stored
+     * @param from   the first sample to compute
+     * @param to     the exclusive last sample to compute
+     */
+    void compute(Row row, double dy, double fdy, double[] out, int offset, int from, int to) {
+        computeScalar(row, dy, fdy, out, offset, from, to);
+    }
+
+    /**
+     * Computes the noise values of the samples in the range [from, to) of the given row one by one.
+     *
+     * @param row    the offsets and the corner gradients of the samples
+     * @param dy     the y offset of the samples from their lattice cell
+     * @param fdy    the faded y offset of the samples
+     * @param out    the buffer to store the computed noise values in
+     * @param offset the index of the buffer at which the value of the first sample of the row is stored
+     * @param from   the first sample to compute
+     * @param to     the exclusive last sample to compute
+     */
+    final void computeScalar(Row row, double dy, double fdy, double[] out, int offset, int from, int to) {
+        double dy1 = dy - 1;
+        // The gradients are the same for all samples of the cell, so the y terms of the dot products are as well
+        double t00 = row.g00y * dy;
+        double t01 = row.g01y * dy1;
+        double t10 = row.g10y * dy;
+        double t11 = row.g11y * dy1;
+        for (int i = from; i < to; i++) {
+            double dx = row.dx[i];
+            double dx1 = dx - 1;
+            double s00 = row.g00x * dx + t00;
+            double s01 = row.g01x * dx + t01;
+            double s10 = row.g10x * dx1 + t10;
+            double s11 = row.g11x * dx1 + t11;
+            double fdx = row.fdx[i];
+            double lx0 = s00 + fdx * (s10 - s00);
+            double lx1 = s01 + fdx * (s11 - s01);
+            out[offset + i] = lx0 + fdy * (lx1 - lx0);
+        }
+    }
+
+    /**
+     * Applies the fade function of {@link SimplePerlinNoise#fade(double)} to the given value.
+     *
+     * @param t the value to which the fade function will be applied
+     * @return the result of applying the fade function to the input value
+     */
+    static double fade(double t) {
+        return t * t * t * (t * (t * 6 - 15) + 10);
+    }
+
+    /**
+     * The columns of a region of samples and the corner gradients of the lattice cell which is currently evaluated.
+     *
+     * <p>On a regular grid, the lattice cell, the offset and the faded offset of a sample along the x-axis only
+     * depend on its column, so they are computed once per region and shared by all rows. They are stored in primitive
+     * arrays so that kernels can load multiple samples at once.
+     */
+    static final class Row {
+
+        /**
+         * The x-coordinates of the lattice cells of the samples.
+         */
+        int[] x0 = new int[0];
+
+        /**
+         * The x offsets of the samples from their lattice cell.
+         */
+        double[] dx = new double[0];
+
+        /**
+         * The faded x offsets of the samples.
+         */
+        double[] fdx = new double[0];
+
+        /**
+         * The computed noise values, used when the values are not stored with double precision.
+         */
+        double[] values = new double[0];
+
+        /**
+         * The x component of the gradient at the corner (x0, y0) of the current cell.
+         */
+        double g00x;
+
+        /**
+         * The y component of the gradient at the corner (x0, y0) of the current cell.
+         */
+        double g00y;
+
+        /**
+         * The x component of the gradient at the corner (x0, y1) of the current cell.
+         */
+        double g01x;
+
+        /**
+         * The y component of the gradient at the corner (x0, y1) of the current cell.
+         */
+        double g01y;
+
+        /**
+         * The x component of the gradient at the corner (x1, y0) of the current cell.
+         */
+        double g10x;
+
+        /**
+         * The y component of the gradient at the corner (x1, y0) of the current cell.
+         */
+        double g10y;
+
+        /**
+         * The x component of the gradient at the corner (x1, y1) of the current cell.
+         */
+        double g11x;
+
+        /**
+         * The y component of the gradient at the corner (x1, y1) of the current cell.
+         */
+        double g11y;
+
+        /**
+         * Computes the lattice cells, offsets and faded offsets of the columns with the specified x-coordinates.
+         *
+         * @param x the x-coordinate of the first column
+         * @param w the exclusive end x-coordinate of the columns
+         * @param f the frequency used to scale the coordinates
+         * @return this row
+         */
+        Row setColumns(int x, int w, double f) {
+            ensureCapacity(w - x);
+            for (int xi = x; xi < w; xi++) {
+                double fx = xi * f;
+                int cell = (int) Math.floor(fx);
+                double offset = fx - cell;
+                x0[xi - x] = cell;
+                dx[xi - x] = offset;
+                fdx[xi - x] = fade(offset);
+            }
+            return this;
+        }
+
+        /**
+         * Ensures that the row can hold at least the specified number of samples. The arrays are only reallocated if
+         * they are too small, so a row can be reused for multiple evaluations.
+         *
+         * @param n the number of samples the row must be able to hold
+         * @return this row
+         */
+        private Row ensureCapacity(int n) {
+            if (dx.length < n) {
+                x0 = new int[n];
+                dx = new double[n];
+                fdx = new double[n];
+                values = new double[n];
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package h13.noise;
+
+/**
+ * A Perlin noise object which wraps another Perlin noise object with its own frequency. The noise domain
+ * coordinates are scaled by the frequency of this object before they are passed to the underlying Perlin noise
+ * object, whose own frequency is ignored.
+ *
+ * <p>This is the {@linkplain PerlinNoise#withFrequency(double) derivation} of Perlin noise objects which cannot share
+ * their gradient vectors with a copy, so the underlying Perlin noise object must not be modified while this object is
+ * used.
+ *
+ * @see PerlinNoise#withFrequency(double)
+ */
+public class ScaledPerlinNoise extends DelegatePerlinNoise implements PerlinNoise {
+
+    /**
+     * The frequency by which the noise domain coordinates are scaled.
+     */
+    private double frequency;
+
+    /**
+     * Constructs a Perlin noise object which scales the noise domain coordinates of the specified Perlin noise object
+     * by the specified frequency.
+     *
+     * @param noise     the underlying Perlin noise object
+     * @param frequency the frequency by which the noise domain coordinates are scaled
+     * @throws IllegalArgumentException if the specified frequency is not in the range [0, 1]
+     */
+    public ScaledPerlinNoise(PerlinNoise noise, double frequency) {
+        super(noise);
+        setFrequency(frequency);
+    }
+
+    @Override
+    public double getFrequency() {
+        return frequency;
+    }
+
+    @Override
+    public void setFrequency(double frequency) {
+        if (frequency < 0 || frequency > 1) {
+            throw new IllegalArgumentException("Frequency must be between 0 and 1");
+        }
+        this.frequency = frequency;
+    }
+
+    @Override
+    public ScaledPerlinNoise withFrequency(double frequency) {
+        if (Double.compare(frequency, this.frequency) == 0) {
+            return this;
+        }
+        return new ScaledPerlinNoise(delegate, frequency);
+    }
+
+    @Override
+    protected ScaledPerlinNoise withDelegate(PerlinNoise delegate) {
+        return new ScaledPerlinNoise(delegate, frequency);
+    }
+
+    @Override
+    public double compute(int x, int y) {
+        return delegate.compute(x * frequency, y * frequency);
+    }
+
+    @Override
+    public double compute(double x, double y) {
+        return delegate.compute(x, y);
+    }
+
+    @Override
+    public long fingerprint() {
+        return Fingerprints.combine(super.fingerprint(), frequency);
+    }
+}
@@ -12,6 +12,11 @@ import java.util.Random;
  */
 public class SimplePerlinNoise extends AbstractPerlinNoise implements PerlinNoise {
 
+    /**
+     * The reusable per-thread rows used for region evaluations.
+     */
+    private static final ThreadLocal<RowKernel.Row> ROWS = ThreadLocal.withInitial(RowKernel.Row::new);
+
     /**
      * Constructs a simple Perlin noise object with the specified noise domain width, height, frequency and seed.
      *
@@ -35,12 +40,200 @@ public class SimplePerlinNoise extends AbstractPerlinNoise implements PerlinNois
         super(width, height, randomGenerator);
     }
 
+    /**
+     * Constructs a simple Perlin noise object with the specified noise domain width, height, frequency and gradient
+     * table.
+     *
+     * @param width           the width of the noise domain
+     * @param height          the height of the noise domain
+     * @param frequency       the frequency of the Perlin noise
+     * @param randomGenerator the random generator of the Perlin noise
+     * @param gradients       the table of gradient vectors associated with the lattice corners
+     */
+    public SimplePerlinNoise(
+        int width,
+        int height,
+        double frequency,
+        Random randomGenerator,
+        GradientTable gradients
+    ) {
+        super(width, height, frequency, randomGenerator, gradients);
+    }
+
+    /**
+     * Constructs a simple Perlin noise with the specified noise domain, frequency and randomGenerator whose gradient
+     * table has the specified size.
+     *
+     * @param width           the width of the noise domain
+     * @param height          the height of the noise domain
+     * @param frequency       the frequency of the Perlin noise
+     * @param randomGenerator the random generator used for generating gradient vectors
+     * @param gradientsWidth  the width of the gradient table
+     * @param gradientsHeight the height of the gradient table
+     * @throws IllegalArgumentException if the width or height is negative, or if the frequency is not between 0 and 1
+     */
+    protected SimplePerlinNoise(
+        int width,
+        int height,
+        double frequency,
+        Random randomGenerator,
+        int gradientsWidth,
+        int gradientsHeight
+    ) {
+        super(width, height, frequency, randomGenerator, gradientsWidth, gradientsHeight);
+    }
+
+    @Override
+    public SimplePerlinNoise withFrequency(double frequency) {
+        if (Double.compare(frequency, getFrequency()) == 0) {
+            return this;
+        }
+        return new SimplePerlinNoise(getWidth(), getHeight(), frequency, getRandomGenerator(), getGradientTable());
+    }
+
     @Override
     public double compute(int x, int y) {
         double f = getFrequency();
         return compute(x * f, y * f);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The values are computed row by row. The lattice cells, offsets and faded offsets of the columns and rows are
+     * computed once for the whole area. Each row is walked cell by cell instead of sample by sample: the corner
+     * gradients of a lattice cell are loaded once and the samples in the cell are evaluated by a {@link RowKernel},
+     * which evaluates multiple samples per instruction if the Vector API is available. The results match
+     * {@link #compute(int, int)} within {@value RowKernel#TOLERANCE}.
+     *
+     * <p>The row kernel inlines the fade and interpolation functions, so it is only used by
+     * {@link SimplePerlinNoise} and {@link ImprovedPerlinNoise} themselves. Subclasses are evaluated sample by sample
+     * with {@link #compute(int, int)}, so they may override any step of the evaluation.
+     */
+    @Override
+    public void compute(int x, int y, int w, int h, double[] out, int offset, int stride) {
+        if (!hasRowKernel()) {
+            for (int yi = y; yi < h; yi++) {
+                int index = offset + (yi - y) * stride - x;
+                for (int xi = x; xi < w; xi++) {
+                    out[index + xi] = compute(xi, yi);
+                }
+            }
+            return;
+        }
+        compute(getFrequency(), x, y, w, h, out, offset, stride);
+    }
+
+    /**
+     * Returns whether the region evaluations of this noise may use the {@link RowKernel}, which is the case if the
+     * class of this noise does not override any step of the evaluation. Subclasses are not trusted, in the same way
+     * as in {@link CompiledPerlinNoise#compile(PerlinNoise)}.
+     *
+     * @return {@code true} if the region evaluations of this noise may use the row kernel
+     */
+    boolean hasRowKernel() {
+        Class<?> type = getClass();
+        return type == SimplePerlinNoise.class || type == ImprovedPerlinNoise.class;
+    }
+
+    /**
+     * Computes the noise values for the specified noise domain coordinates (rectangle area) scaled by the given
+     * frequency instead of the frequency of this noise, and stores them in the given buffer.
+     *
+     * @param frequency the frequency used to scale the coordinates
+     * @param x         the x-coordinate of the starting point of the noise domain
+     * @param y         the y-coordinate of the starting point of the noise domain
+     * @param w         the width of the noise domain
+     * @param h         the height of the noise domain
+     * @param out       the buffer to store the computed gradient noise values in
+     * @param offset    the index of the buffer at which the first value is stored
+     * @param stride    the distance between the first values of two consecutive rows in the buffer
+     * @see #compute(int, int, int, int, double[], int, int)
+     */
+    void compute(double frequency, int x, int y, int w, int h, double[] out, int offset, int stride) {
+        if (!hasRowKernel()) {
+            for (int yi = y; yi < h; yi++) {
+                int index = offset + (yi - y) * stride - x;
+                for (int xi = x; xi < w; xi++) {
+                    out[index + xi] = compute(xi * frequency, yi * frequency);
+                }
+            }
+            return;
+        }
+        RowKernel kernel = RowKernel.getInstance();
+        RowKernel.Row row = ROWS.get().setColumns(x, w, frequency);
+        for (int yi = y; yi < h; yi++) {
+            computeRow(kernel, row, yi * frequency, w - x, out, offset + (yi - y) * stride);
+        }
+    }
+
+    @Override
+    public void compute(int x, int y, int w, int h, float[] out, int offset, int stride) {
+        if (!hasRowKernel()) {
+            for (int yi = y; yi < h; yi++) {
+                int index = offset + (yi - y) * stride - x;
+                for (int xi = x; xi < w; xi++) {
+                    out[index + xi] = (float) compute(xi, yi);
+                }
+            }
+            return;
+        }
+        RowKernel kernel = RowKernel.getInstance();
+        double f = getFrequency();
+        RowKernel.Row row = ROWS.get().setColumns(x, w, f);
+        for (int yi = y; yi < h; yi++) {
+            computeRow(kernel, row, yi * f, w - x, row.values, 0);
+            int index = offset + (yi - y) * stride;
+            for (int i = 0; i < w - x; i++) {
+                out[index + i] = (float) row.values[i];
+            }
+        }
+    }
+
+    /**
+     * Computes the noise values of the specified row cell by cell and stores them in the given buffer.
+     *
+     * @param kernel the kernel used to evaluate the samples of a cell
+     * @param row    the precomputed columns of the row
+     * @param fy     the y-coordinate of the samples scaled by the frequency
+     * @param n      the number of samples of the row
+     * @param out    the buffer to store the computed noise values in
+     * @param offset the index of the buffer at which the value of the first sample is stored
+     */
+    void computeRow(RowKernel kernel, RowKernel.Row row, double fy, int n, double[] out, int offset) {
+        GradientTable gradients = getGradientTable();
+        int y0 = (int) Math.floor(fy);
+        int y1 = y0 + 1;
+        double dy = fy - y0;
+        double fdy = RowKernel.fade(dy);
+        int[] cells = row.x0;
+        int i = 0;
+        while (i < n) {
+            // Collect the samples which lie in the same cell
+            int from = i;
+            int x0 = cells[i];
+            int x1 = x0 + 1;
+            do {
+                i++;
+            } while (i < n && cells[i] == x0);
+
+            // Load the corner gradients once for all samples of the cell
+            int g00 = getGradientIndex(x0, y0);
+            int g01 = getGradientIndex(x0, y1);
+            int g10 = getGradientIndex(x1, y0);
+            int g11 = getGradientIndex(x1, y1);
+            row.g00x = gradients.getX(g00);
+            row.g00y = gradients.getY(g00);
+            row.g01x = gradients.getX(g01);
+            row.g01y = gradients.getY(g01);
+            row.g10x = gradients.getX(g10);
+            row.g10y = gradients.getY(g10);
+            row.g11x = gradients.getX(g11);
+            row.g11y = gradients.getY(g11);
+            kernel.compute(row, dy, fdy, out, offset, from, i);
+        }
+    }
+
     @Override
     @StudentImplementationRequired
     public double compute(double x, double y) {
@@ -1,13 +1,16 @@
 package h13.ui.app;
 
+import h13.noise.NoiseTile;
 import h13.noise.PerlinNoise;
 import h13.ui.controls.DoubleField;
 import h13.ui.controls.IntegerField;
 import h13.ui.controls.LongField;
 import h13.ui.layout.AlgorithmView;
+import h13.ui.layout.CacheStatsView;
 import h13.ui.layout.ChooserView;
 import h13.ui.layout.ParameterView;
 import h13.ui.layout.SettingsView;
+import h13.util.DiskCache;
 import javafx.application.Application;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -22,6 +25,9 @@ import javafx.stage.Screen;
 import javafx.stage.Stage;
 import javafx.util.Pair;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -53,6 +59,32 @@ public class PerlinNoiseApp extends Application {
      */
     private static final int HGAP = 10;
 
+    /**
+     * The system property which enables the debug views.
+     */
+    private static final String DEBUG_PROPERTY = "h13.debug";
+
+    /**
+     * The system property which enables the octave culling of the fractal algorithm.
+     */
+    private static final String OCTAVE_CULLING_PROPERTY = "h13.octaveCulling";
+
+    /**
+     * The system property which makes the simple algorithm take its gradient vectors from the lattice shared by all
+     * algorithms of a seed, which renders different images than the default.
+     */
+    private static final String SHARED_LATTICE_PROPERTY = "h13.sharedLattice";
+
+    /**
+     * The system property which specifies the directory of the rendered noise tiles that are kept across restarts.
+     */
+    private static final String TILE_CACHE_PROPERTY = "h13.tileCache";
+
+    /**
+     * The maximum number of bytes of the rendered noise tiles that are kept across restarts.
+     */
+    private static final long TILE_CACHE_BYTES = 1024L * 1024 * 1024;
+
     /**
      * The header font.
      */
@@ -144,6 +176,36 @@ public class PerlinNoiseApp extends Application {
             }
         );
 
+        // Tiles - Keep the rendered noise values across restarts if requested by -Dh13.tileCache=<directory>
+        String tileDirectory = System.getProperty(TILE_CACHE_PROPERTY);
+        if (tileDirectory != null) {
+            try {
+                root.getViewModel().setTileCache(
+                    new DiskCache<>(
+                        Path.of(tileDirectory),
+                        TILE_CACHE_BYTES,
+                        NoiseTile::fingerprint,
+                        NoiseTile::toBytes
+                    )
+                );
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot open the tile cache " + tileDirectory, e);
+            }
+        }
+
+        // Octaves - Skip invisible octaves of the fractal algorithm if requested by -Dh13.octaveCulling=true
+        if (Boolean.getBoolean(OCTAVE_CULLING_PROPERTY)
+            && root.getViewModel() instanceof PerlinNoiseViewModel viewModel) {
+            viewModel.setOctaveCulling(true);
+        }
+
+        // Lattice - Share the gradient vectors of a seed across screen sizes if requested by -Dh13.sharedLattice=true,
+        // which renders a different image for every seed than the default
+        if (Boolean.getBoolean(SHARED_LATTICE_PROPERTY)
+            && root.getViewModel() instanceof PerlinNoiseViewModel viewModel) {
+            viewModel.setSharedLattice(true);
+        }
+
         Rectangle2D screen = Screen.getPrimary().getVisualBounds();
         int width = (int) screen.getWidth() / 2;
         int height = (int) screen.getHeight() / 2;
@@ -155,5 +217,20 @@ public class PerlinNoiseApp extends Application {
         primaryStage.centerOnScreen();
 
         primaryStage.show();
+
+        // Debug - Show the cache statistics in a separate window if requested by -Dh13.debug=true
+        if (Boolean.getBoolean(DEBUG_PROPERTY) && root.getViewModel() instanceof PerlinNoiseViewModel viewModel) {
+            CacheStatsView stats = new CacheStatsView(viewModel.getCaches(), view -> {
+                var underlying = view.getView();
+                underlying.setPadding(PADDING);
+                underlying.setHgap(HGAP);
+                underlying.setVgap(VGAP);
+            });
+            Stage debugStage = new Stage();
+            debugStage.setTitle("Cache Statistics");
+            debugStage.initOwner(primaryStage);
+            debugStage.setScene(new Scene(stats.getView()));
+            debugStage.show();
+        }
     }
 }
@@ -6,8 +6,10 @@ import h13.noise.PerlinNoise;
 import h13.noise.SimplePerlinNoise;
 import h13.ui.layout.AlgorithmView;
 import h13.ui.layout.AlgorithmViewModel;
+import h13.util.AsyncCache;
 import h13.util.Cache;
-import h13.util.LRUCache;
+import h13.util.ConcurrentLRUCache;
+import javafx.application.Platform;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.Property;
 import javafx.geometry.Rectangle2D;
@@ -15,9 +17,15 @@ import javafx.scene.paint.Color;
 import javafx.stage.Screen;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.DoubleFunction;
 import java.util.stream.IntStream;
 
@@ -50,17 +58,84 @@ public class PerlinNoiseViewModel extends AlgorithmViewModel {
         184, 84, 204, 176, 115, 121, 50, 45, 127, 4, 150, 254, 138, 236, 205, 93,
         222, 114, 67, 29, 24, 72, 243, 141, 128, 195, 78, 66, 215, 61, 156, 180};
 
+    /**
+     * The maximum number of bytes retained by the algorithms in {@link #cacheSimpleNoise} and
+     * {@link #cacheImprovedNoise} each.
+     */
+    private static final long NOISE_CACHE_BYTES = 512L * 1024 * 1024;
+
+    /**
+     * The maximum number of bytes retained by the octave layers in {@link #cacheLayers}.
+     */
+    private static final long LAYER_CACHE_BYTES = 256L * 1024 * 1024;
+
+    /**
+     * The distance between two rendered samples in the noise domain if octave culling is enabled, since every pixel
+     * is sampled once.
+     */
+    private static final double SAMPLING_SCALE = 1;
+
+    /**
+     * The sum of the amplitudes of the trailing octaves of the {@link FractalPerlinNoise} algorithm below which they
+     * are skipped if octave culling is enabled, which is below one step of an 8-bit color channel.
+     */
+    private static final double AMPLITUDE_EPSILON = 1.0 / 256;
+
+    /**
+     * The executor which starts the background construction of the algorithm of a new seed on the JavaFX application
+     * thread once the seed has not changed for a while.
+     */
+    private static final Executor PREFETCH_EXECUTOR = CompletableFuture.delayedExecutor(
+        500,
+        TimeUnit.MILLISECONDS,
+        Platform::runLater
+    );
+
     /**
      * The cache for the {@link SimplePerlinNoise} algorithm used to improve performance when accessing the same
      * algorithm multiple times.
      */
     private final Cache<Long, PerlinNoise> cacheSimpleNoise;
 
+    /**
+     * The asynchronous view of {@link #cacheSimpleNoise}, which constructs the algorithm of a new seed in the
+     * background as soon as the seed is entered, so that it is ready or in progress when the algorithm is drawn.
+     */
+    private final AsyncCache<Long, PerlinNoise> asyncSimpleNoise;
+
+    /**
+     * The number of changes of the seed, used to prefetch only the algorithm of the last seed.
+     */
+    private final AtomicLong seedChanges = new AtomicLong();
+
+    /**
+     * Whether the {@link FractalPerlinNoise} algorithm skips octaves which are not resolved by the pixels or whose
+     * contribution is below one step of a color channel. This changes the rendered values slightly, so it is disabled
+     * by default.
+     */
+    private boolean octaveCulling = false;
+
+    /**
+     * Whether the {@link SimplePerlinNoise} algorithm takes its gradient vectors from the
+     * {@linkplain PerlinNoise#shared(int, int, double, long) lattice shared} by all algorithms of a seed instead of
+     * generating them with a {@link Random} seeded with the seed. The shared lattice generates other gradient vectors
+     * for the same seed, so every seed renders a different image than with the default, which is therefore kept.
+     */
+    private boolean sharedLattice = false;
+
     /**
      * The cache for the {@link FractalPerlinNoise} algorithm used to improve performance when accessing the same
-     * algorithm multiple times.
+     * algorithm multiple times. The algorithms are keyed by the {@linkplain PerlinNoise#fingerprint() fingerprint} of
+     * the underlying algorithm, so looking them up does not compare the gradient vectors. Algorithms without a
+     * {@linkplain PerlinNoise#hasFingerprint() fingerprint} are not cached.
      */
-    private final Cache<PerlinNoise, PerlinNoise> cacheImprovedNoise;
+    private final Cache<Long, PerlinNoise> cacheImprovedNoise;
+
+    /**
+     * The cache for the octave layers of the {@link FractalPerlinNoise} algorithm, so that changing the amplitude or
+     * persistence only recombines the layers instead of evaluating the noise again.
+     */
+    private final Cache<FractalPerlinNoise.Layer, double[]> cacheLayers;
 
     /**
      * Constructs a new {@link PerlinNoiseViewModel} with the given options and parameters to handle and the color
@@ -78,8 +153,131 @@ public class PerlinNoiseViewModel extends AlgorithmViewModel {
         int cacheSize
     ) {
         super(options, parameters, color);
-        this.cacheSimpleNoise = new LRUCache<>(cacheSize);
-        this.cacheImprovedNoise = new LRUCache<>(cacheSize);
+        // The algorithms are bounded by the memory they retain, since it depends on the screen size. The simple
+        // algorithms generate their gradient vectors on first access and are weighed when they are cached, so they are
+        // mostly bounded by their number.
+        this.cacheSimpleNoise = new ConcurrentLRUCache<>(cacheSize, NOISE_CACHE_BYTES, (k, v) -> v.retainedSize());
+        this.cacheImprovedNoise = new ConcurrentLRUCache<>(cacheSize, NOISE_CACHE_BYTES, (k, v) -> v.retainedSize());
+        this.cacheLayers = new ConcurrentLRUCache<>(LAYER_CACHE_BYTES, (k, v) -> (long) Double.BYTES * v.length);
+        this.asyncSimpleNoise = new AsyncCache<>(cacheSimpleNoise);
+        Property<Number> seed = getParameter(Parameter.SEED);
+        if (seed != null) {
+            // Only prefetch once the user stopped typing, so that the intermediate seeds do not fill the cache
+            seed.addListener((observable, oldValue, newValue) -> {
+                long change = seedChanges.incrementAndGet();
+                PREFETCH_EXECUTOR.execute(() -> {
+                    if (change == seedChanges.get() && seed.getValue() != null) {
+                        prefetchSimpleNoise(seed.getValue().longValue());
+                    }
+                });
+            });
+        }
+    }
+
+    /**
+     * Starts constructing the {@link SimplePerlinNoise} algorithm of the given seed in the background unless it is
+     * already cached or being constructed. A failed construction, e.g. due to an illegal frequency, is not cached and
+     * is repeated when the algorithm is drawn.
+     *
+     * <p>Only the default algorithm is prefetched, which generates the gradient vectors of the whole screen with a
+     * {@link Random} on construction. The algorithm of the shared lattice generates its gradient vectors on first
+     * access, so its construction is too cheap to be worth moving to the background.
+     *
+     * @param seed the seed of the algorithm to construct
+     */
+    private void prefetchSimpleNoise(long seed) {
+        Number frequency = getParameter(Parameter.FREQUENCY).getValue();
+        if (frequency == null || sharedLattice) {
+            return;
+        }
+        Rectangle2D screen = Screen.getPrimary().getVisualBounds();
+        boolean shared = sharedLattice;
+        asyncSimpleNoise.get(seed, k -> createSimpleNoise(screen, frequency.doubleValue(), k, shared));
+    }
+
+    /**
+     * Creates the {@link SimplePerlinNoise} algorithm of the given seed which covers the given screen.
+     *
+     * <p>By default, the gradient vectors are generated with a {@link Random} seeded with the seed. If the shared
+     * lattice is used, the gradient vectors are taken from the lattice shared by all algorithms of the seed and
+     * generated page by page when they are first accessed, so algorithms of other screens or export sizes reuse the
+     * pages which are already generated.
+     *
+     * @param screen    the bounds of the screen to cover
+     * @param frequency the frequency of the algorithm
+     * @param seed      the seed of the algorithm
+     * @param shared    whether the gradient vectors are taken from the shared lattice of the seed
+     * @return the {@link SimplePerlinNoise} algorithm of the given seed
+     */
+    private static PerlinNoise createSimpleNoise(Rectangle2D screen, double frequency, long seed, boolean shared) {
+        int width = (int) screen.getWidth();
+        int height = (int) screen.getHeight();
+        if (shared) {
+            return PerlinNoise.shared(width, height, frequency, seed);
+        }
+        return new SimplePerlinNoise(width, height, frequency, new Random(seed));
+    }
+
+    /**
+     * Returns whether the {@link FractalPerlinNoise} algorithm skips octaves which are not resolved by the pixels or
+     * whose contribution is below one step of a color channel.
+     *
+     * @return {@code true} if octave culling is enabled
+     */
+    public boolean isOctaveCulling() {
+        return octaveCulling;
+    }
+
+    /**
+     * Sets whether the {@link FractalPerlinNoise} algorithm skips octaves which are not resolved by the pixels or
+     * whose contribution is below one step of a color channel, which is faster but changes the rendered values
+     * slightly.
+     *
+     * @param octaveCulling {@code true} to enable octave culling
+     */
+    public void setOctaveCulling(boolean octaveCulling) {
+        this.octaveCulling = octaveCulling;
+    }
+
+    /**
+     * Returns whether the {@link SimplePerlinNoise} algorithm takes its gradient vectors from the lattice shared by all
+     * algorithms of a seed.
+     *
+     * @return {@code true} if the shared lattice is used
+     */
+    public boolean isSharedLattice() {
+        return sharedLattice;
+    }
+
+    /**
+     * Sets whether the {@link SimplePerlinNoise} algorithm takes its gradient vectors from the lattice shared by all
+     * algorithms of a seed, which is faster to construct and shares the gradient vectors across screen sizes but
+     * renders a different image for every seed than the default. The cached algorithms are discarded.
+     *
+     * @param sharedLattice {@code true} to use the shared lattice
+     */
+    public void setSharedLattice(boolean sharedLattice) {
+        if (this.sharedLattice != sharedLattice) {
+            this.sharedLattice = sharedLattice;
+            cacheSimpleNoise.clear();
+        }
+    }
+
+    /**
+     * Returns the caches of this view model identified by their name, e.g. to show their statistics.
+     *
+     * @return the caches of this view model identified by their name
+     */
+    public Map<String, Cache<?, ?>> getCaches() {
+        Map<String, Cache<?, ?>> caches = new LinkedHashMap<>();
+        caches.put("Simple noise", cacheSimpleNoise);
+        caches.put("Improved noise", cacheImprovedNoise);
+        caches.put("Octave layers", cacheLayers);
+        Cache<?, ?> tileCache = getTileCache();
+        if (tileCache != null) {
+            caches.put("Rendered tiles", tileCache);
+        }
+        return caches;
     }
 
     /**
@@ -112,45 +310,57 @@ public class PerlinNoiseViewModel extends AlgorithmViewModel {
                 long seedValue = seed.getValue().longValue();
                 double frequency = getParameter(Parameter.FREQUENCY).getValue().doubleValue();
                 Random random = new Random(seedValue);
-                PerlinNoise algorithm = cacheSimpleNoise.computeIfAbsent(seedValue, k -> {
-                    Rectangle2D screen = Screen.getPrimary().getVisualBounds();
-                    return new SimplePerlinNoise(
-                        (int) screen.getWidth(),
-                        (int) screen.getHeight(),
-                        frequency,
-                        random
-                    );
-                });
+                // Constructed on this thread unless a background construction of the same seed is in progress
+                boolean shared = sharedLattice;
+                PerlinNoise algorithm = join(asyncSimpleNoise.get(
+                    seedValue,
+                    k -> createSimpleNoise(Screen.getPrimary().getVisualBounds(), frequency, k, shared),
+                    Runnable::run
+                ));
 
                 // Check if the improved algorithm is enabled.
                 if (getAlgorithm(Algorithm.IMPROVED).get()) {
                     PerlinNoise tmp = algorithm;
-                    algorithm = cacheImprovedNoise.computeIfAbsent(
-                        algorithm,
-                        k -> PerlinNoise.improved(tmp, getPermutationTable(random))
-                    );
+                    if (algorithm.hasFingerprint()) {
+                        algorithm = cacheImprovedNoise.computeIfAbsent(
+                            algorithm.fingerprint(),
+                            k -> PerlinNoise.improved(tmp, getPermutationTable(random))
+                        );
+                    } else {
+                        // Noises without a fingerprint could be mixed up with others, so they are not cached
+                        algorithm = PerlinNoise.improved(tmp, getPermutationTable(random));
+                    }
                 }
 
+                // The cached algorithms are shared, so they are not modified but derived with the frequency, which
+                // shares their gradients.
+                algorithm = algorithm.withFrequency(frequency);
+
                 // Check if the fractal algorithm is enabled.
                 if (getAlgorithm(Algorithm.FRACTAL).get()) {
-                    algorithm = new FractalPerlinNoise(
+                    FractalPerlinNoise fractal = new FractalPerlinNoise(
                         algorithm,
                         getParameter(Parameter.AMPLITUDE).getValue().doubleValue(),
                         getParameter(Parameter.OCTAVES).getValue().intValue(),
                         getParameter(Parameter.LACUNARITY).getValue().doubleValue(),
                         getParameter(Parameter.PERSISTENCE).getValue().doubleValue()
                     );
+                    if (octaveCulling) {
+                        fractal.setSamplingScale(SAMPLING_SCALE);
+                        fractal.setAmplitudeEpsilon(AMPLITUDE_EPSILON);
+                    }
+                    fractal.setLayerCache(cacheLayers);
+                    algorithm = fractal;
                 }
 
                 // Don't update the algorithm if it hasn't changed, null is used to indicate that the algorithm should not be
                 // updated.
-                if (Objects.equals(lastAlgorithm, algorithm) && Double.compare(frequency, algorithm.getFrequency()) == 0) {
+                if (Objects.equals(lastAlgorithm, algorithm)) {
                     return null;
                 }
 
                 // Used to check if the algorithm has changed.
                 lastAlgorithm = algorithm;
-                algorithm.setFrequency(frequency);
                 return algorithm;
             },
             "Illegal frequency",
@@ -158,6 +368,28 @@ public class PerlinNoiseViewModel extends AlgorithmViewModel {
         );
     }
 
+    /**
+     * Waits for the given future and returns its value. Exceptions of the computation are rethrown unwrapped, so that
+     * their message can be shown.
+     *
+     * @param future the future to wait for
+     * @param <T>    the type of the value
+     * @return the value of the future
+     */
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
     /**
      * Returns the boolean property to the given algorithm.
      *
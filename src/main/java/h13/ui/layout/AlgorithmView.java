@@ -132,6 +132,15 @@ public class AlgorithmView extends AbstractView<AlgorithmView, BorderPane> imple
         );
     }
 
+    /**
+     * Returns the view model of this view.
+     *
+     * @return the view model of this view
+     */
+    public AlgorithmViewModel getViewModel() {
+        return viewModel;
+    }
+
     /**
      * Returns the canvas for visualizing the algorithm.
      *
@@ -1,7 +1,10 @@
 package h13.ui.layout;
 
+import h13.noise.NoiseScheduler;
+import h13.noise.NoiseTile;
 import h13.noise.NormalizedPerlinNoise;
 import h13.noise.PerlinNoise;
+import h13.util.Cache;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.Property;
 import javafx.embed.swing.SwingFXUtils;
@@ -54,6 +57,26 @@ public abstract class AlgorithmViewModel {
      */
     protected @Nullable PerlinNoise lastAlgorithm = null;
 
+    /**
+     * The algorithm which was compiled last, used to compile every algorithm only once.
+     */
+    private @Nullable PerlinNoise compiledAlgorithm = null;
+
+    /**
+     * The compiled evaluator of {@link #compiledAlgorithm}.
+     */
+    private @Nullable PerlinNoise compiled = null;
+
+    /**
+     * The buffer for the computed noise values which is reused across images to avoid allocations.
+     */
+    private double[] buffer = new double[0];
+
+    /**
+     * The cache for the rendered noise values of the images, or {@code null} if they are computed for every image.
+     */
+    private @Nullable Cache<NoiseTile, double[]> tileCache;
+
     /**
      * Creates a new algorithm view model with the given options, parameters and color mapper.
      *
@@ -154,16 +177,74 @@ public abstract class AlgorithmViewModel {
         // TODO H5.1
         WritableImage image = new WritableImage(w, h);
         PixelWriter writer = image.getPixelWriter();
-        double[][] noises = algorithm.compute(x, y, w, h);
-        for (int xi = 0; xi < noises.length; xi++) {
-            for (int yi = 0; yi < noises[xi].length; yi++) {
-                Color color = colorMapper.apply(noises[xi][yi]);
+        int columns = Math.max(w - x, 0);
+        int rows = Math.max(h - y, 0);
+        double[] noises;
+        Cache<NoiseTile, double[]> cache = tileCache;
+        if (cache == null || !algorithm.hasFingerprint()) {
+            if (buffer.length < columns * rows) {
+                buffer = new double[columns * rows];
+            }
+            noises = buffer;
+            NoiseScheduler.getDefault().compute(compile(algorithm), x, y, w, h, noises, 0, columns);
+        } else {
+            noises = cache.computeIfAbsent(NoiseTile.of(algorithm, x, y, w, h), key -> {
+                double[] values = new double[columns * rows];
+                NoiseScheduler.getDefault().compute(compile(algorithm), x, y, w, h, values, 0, columns);
+                return values;
+            });
+        }
+        for (int yi = 0; yi < rows; yi++) {
+            for (int xi = 0; xi < columns; xi++) {
+                Color color = colorMapper.apply(noises[yi * columns + xi]);
                 writer.setColor(xi, yi, color);
             }
         }
         return image;
     }
 
+    /**
+     * Returns the compiled evaluator of the given algorithm. The evaluator of the last algorithm is reused, since it
+     * reads the parameters of the algorithm on every evaluation.
+     *
+     * @param algorithm the algorithm to compile
+     * @return the compiled evaluator of the given algorithm
+     * @see PerlinNoise#compile(PerlinNoise)
+     */
+    private PerlinNoise compile(PerlinNoise algorithm) {
+        PerlinNoise compiled = this.compiled;
+        if (compiled == null || compiledAlgorithm != algorithm) {
+            compiled = PerlinNoise.compile(algorithm);
+            this.compiled = compiled;
+            compiledAlgorithm = algorithm;
+        }
+        return compiled;
+    }
+
+    /**
+     * Returns the cache for the rendered noise values of the images.
+     *
+     * @return the cache for the rendered noise values of the images, or {@code null} if they are computed for every
+     *         image
+     */
+    public @Nullable Cache<NoiseTile, double[]> getTileCache() {
+        return tileCache;
+    }
+
+    /**
+     * Sets the cache for the rendered noise values of the images, e.g. a {@link h13.util.DiskCache DiskCache} so that
+     * the images are not computed again after a restart. The tiles are keyed by the
+     * {@linkplain PerlinNoise#fingerprint() fingerprint} of the algorithm, so the algorithms must have stable and
+     * distinct fingerprints. Algorithms without a {@linkplain PerlinNoise#hasFingerprint() fingerprint} are not
+     * cached.
+     *
+     * @param tileCache the cache for the rendered noise values of the images, or {@code null} to compute them for
+     *                  every image
+     */
+    public void setTileCache(@Nullable Cache<NoiseTile, double[]> tileCache) {
+        this.tileCache = tileCache;
+    }
+
     /**
      * Saves the last drawn image to a file.
      *
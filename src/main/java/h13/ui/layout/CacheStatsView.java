@@ -0,0 +1,132 @@
+package h13.ui.layout;
+
+import h13.util.Cache;
+import h13.util.CacheStats;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.scene.control.Label;
+import javafx.scene.layout.GridPane;
+import javafx.util.Duration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A debug view that shows the {@linkplain Cache#stats() statistics} of a set of caches, one cache per row. The
+ * statistics are refreshed periodically while the view is shown.
+ */
+public class CacheStatsView extends AbstractView<CacheStatsView, GridPane> implements View {
+
+    /**
+     * The headers of the columns.
+     */
+    private static final String[] HEADERS = {
+        "Cache", "Size", "Weight", "Hits", "Misses", "Hit rate", "Loads", "Failures", "Avg. load", "Evictions",
+    };
+
+    /**
+     * The interval in which the statistics are refreshed.
+     */
+    private static final Duration REFRESH_INTERVAL = Duration.seconds(1);
+
+    /**
+     * The caches to show, identified by their name.
+     */
+    private final Map<String, ? extends Cache<?, ?>> caches;
+
+    /**
+     * The labels of the rows, in the order of the caches.
+     */
+    private final List<Label[]> rows = new ArrayList<>();
+
+    /**
+     * The timeline which refreshes the statistics periodically.
+     */
+    private final Timeline timeline = new Timeline(new KeyFrame(REFRESH_INTERVAL, event -> refresh()));
+
+    /**
+     * Creates a new cache statistics view for the given caches.
+     *
+     * @param caches        the caches to show, identified by their name
+     * @param configuration the configuration of this view
+     */
+    public CacheStatsView(Map<String, ? extends Cache<?, ?>> caches, ViewConfiguration<CacheStatsView> configuration) {
+        this(new GridPane(), caches, configuration);
+    }
+
+    /**
+     * Creates a new cache statistics view for the given caches.
+     *
+     * @param root          the root pane of this view
+     * @param caches        the caches to show, identified by their name
+     * @param configuration the configuration of this view
+     */
+    public CacheStatsView(
+        GridPane root,
+        Map<String, ? extends Cache<?, ?>> caches,
+        ViewConfiguration<CacheStatsView> configuration
+    ) {
+        super(root, configuration);
+        this.caches = caches;
+        initialize();
+        config(this);
+    }
+
+    @Override
+    public void initialize() {
+        for (int column = 0; column < HEADERS.length; column++) {
+            root.add(new Label(HEADERS[column]), column, 0);
+        }
+        for (String name : caches.keySet()) {
+            Label[] labels = new Label[HEADERS.length];
+            labels[0] = new Label(name);
+            for (int column = 1; column < labels.length; column++) {
+                labels[column] = new Label();
+            }
+            rows.add(labels);
+            root.addRow(rows.size(), labels);
+        }
+        refresh();
+        timeline.setCycleCount(Animation.INDEFINITE);
+        root.sceneProperty().addListener((observable, oldValue, newValue) -> {
+            if (newValue == null) {
+                timeline.stop();
+            } else {
+                timeline.play();
+            }
+        });
+    }
+
+    /**
+     * Refreshes the shown statistics of the caches.
+     */
+    public void refresh() {
+        int row = 0;
+        for (Cache<?, ?> cache : caches.values()) {
+            CacheStats stats = cache.stats();
+            Label[] labels = rows.get(row++);
+            labels[1].setText(bounded(cache.size(), cache.capacity()));
+            labels[2].setText(bounded(stats.weight(), cache.maxWeight()));
+            labels[3].setText(Long.toString(stats.hitCount()));
+            labels[4].setText(Long.toString(stats.missCount()));
+            labels[5].setText(String.format("%.1f %%", stats.hitRate() * 100));
+            labels[6].setText(Long.toString(stats.loadCount()));
+            labels[7].setText(Long.toString(stats.loadFailureCount()));
+            labels[8].setText(String.format("%.2f ms", stats.averageLoadPenalty() / 1e6));
+            labels[9].setText(Long.toString(stats.evictionCount()));
+        }
+    }
+
+    /**
+     * Formats the given value together with its bound, unless the value is effectively unbounded.
+     *
+     * @param value the value to format
+     * @param bound the bound of the value
+     * @return the formatted value
+     */
+    private static String bounded(long value, long bound) {
+        return bound >= Integer.MAX_VALUE ? Long.toString(value) : value + " / " + bound;
+    }
+}
@@ -0,0 +1,152 @@
+package h13.util;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+/**
+ * A cache which computes absent values asynchronously and stores the computed values in an underlying {@link Cache}.
+ *
+ * <p>Concurrent requests for the same key share one in-flight computation, so the mapping function is applied at most
+ * once per key until its result is cached or the computation fails. A failed computation is not cached, so the next
+ * request computes the value again. Computed values are stored with
+ * {@link Cache#computeIfAbsent(Object, Function)} of the underlying cache, which therefore records the computations
+ * in its {@linkplain Cache#stats() statistics}.
+ *
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of mapped values
+ */
+public class AsyncCache<K, V> {
+
+    /**
+     * The cache which stores the computed values.
+     */
+    private final Cache<K, V> cache;
+
+    /**
+     * The executor which computes the values if no executor is specified.
+     */
+    private final Executor executor;
+
+    /**
+     * The computations which are in flight, identified by their key.
+     */
+    private final ConcurrentHashMap<K, CompletableFuture<V>> loads = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs an asynchronous cache which stores the computed values in the specified cache and computes them in
+     * the {@linkplain ForkJoinPool#commonPool() common pool}.
+     *
+     * @param cache the cache which stores the computed values, which must be thread-safe
+     */
+    public AsyncCache(Cache<K, V> cache) {
+        this(cache, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs an asynchronous cache which stores the computed values in the specified cache and computes them with
+     * the specified executor.
+     *
+     * @param cache    the cache which stores the computed values, which must be thread-safe
+     * @param executor the executor which computes the values
+     */
+    public AsyncCache(Cache<K, V> cache, Executor executor) {
+        this.cache = cache;
+        this.executor = executor;
+    }
+
+    /**
+     * Returns the cache which stores the computed values.
+     *
+     * @return the cache which stores the computed values
+     */
+    public Cache<K, V> synchronous() {
+        return cache;
+    }
+
+    /**
+     * Returns the future of the value to which the specified key is mapped, or {@code null} if the value is neither
+     * cached nor being computed.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the future of the value to which the specified key is mapped, or {@code null} if the value is neither
+     *         cached nor being computed
+     */
+    public @Nullable CompletableFuture<V> getIfPresent(K key) {
+        CompletableFuture<V> load = loads.get(key);
+        if (load != null) {
+            return load;
+        }
+        V value = cache.get(key);
+        return value == null ? null : CompletableFuture.completedFuture(value);
+    }
+
+    /**
+     * Returns the future of the value to which the specified key is mapped. If the value is neither cached nor being
+     * computed, it is computed with the default executor of this cache.
+     *
+     * @param key    the key whose associated value is to be returned
+     * @param mapper the function to compute the value, which must not modify this cache
+     * @return the future of the value to which the specified key is mapped, which completes with {@code null} if the
+     *         mapping function returns {@code null}
+     */
+    public CompletableFuture<V> get(K key, Function<? super K, ? extends V> mapper) {
+        return get(key, mapper, executor);
+    }
+
+    /**
+     * Returns the future of the value to which the specified key is mapped. If the value is neither cached nor being
+     * computed, it is computed with the specified executor, e.g. {@code Runnable::run} to compute it on the calling
+     * thread while still sharing the computation with concurrent requests. Cached values are returned as a completed
+     * future without involving the executor.
+     *
+     * @param key      the key whose associated value is to be returned
+     * @param mapper   the function to compute the value, which must not modify this cache
+     * @param executor the executor which computes the value if it is absent
+     * @return the future of the value to which the specified key is mapped, which completes with {@code null} if the
+     *         mapping function returns {@code null}
+     */
+    public CompletableFuture<V> get(K key, Function<? super K, ? extends V> mapper, Executor executor) {
+        // Peeked first, so that a miss is only recorded once by computeIfAbsent of the load
+        if (cache.peek(key) != null) {
+            V value = cache.get(key);
+            if (value != null) {
+                return CompletableFuture.completedFuture(value);
+            }
+        }
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> load = loads.putIfAbsent(key, created);
+        if (load != null) {
+            return load;
+        }
+        // A value cached since the lookup above is returned by computeIfAbsent without computing it again
+        try {
+            executor.execute(() -> {
+                try {
+                    V computed = cache.computeIfAbsent(key, mapper);
+                    loads.remove(key, created);
+                    created.complete(computed);
+                } catch (Throwable e) {
+                    loads.remove(key, created);
+                    created.completeExceptionally(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            // Rejected by the executor
+            loads.remove(key, created);
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    /**
+     * Removes the cached values from this cache. Computations which are in flight are not cancelled.
+     */
+    public void clear() {
+        cache.clear();
+    }
+}
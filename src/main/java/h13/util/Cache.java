@@ -23,6 +23,21 @@ public interface Cache<K, V> {
      */
     @Nullable V get(K key);
 
+    /**
+     * Returns the value to which the specified key is mapped, or {@code null} if this cache contains no mapping for
+     * the key, without recording the lookup in the {@linkplain #stats() statistics} or as an access of the mapping.
+     *
+     * <p>The default implementation calls {@link #get(Object)}, so caches which record statistics or accesses
+     * override it.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the value to which the specified key is mapped, or {@code null} if this cache contains no mapping for
+     *         the key
+     */
+    default @Nullable V peek(K key) {
+        return get(key);
+    }
+
     /**
      * Associates the specified value with the specified key in this cache.
      *
@@ -61,4 +76,38 @@ public interface Cache<K, V> {
      */
     int capacity();
 
+    /**
+     * Returns the total weight of the key-value mappings in this cache. Unless the cache is weighted, every mapping
+     * weighs 1.
+     *
+     * @return the total weight of the key-value mappings in this cache
+     * @see Weigher
+     */
+    default long weight() {
+        return size();
+    }
+
+    /**
+     * Returns the maximum total weight of the key-value mappings this cache can hold. Unless the cache is weighted,
+     * every mapping weighs 1.
+     *
+     * @return the maximum total weight of the key-value mappings this cache can hold
+     * @see Weigher
+     */
+    default long maxWeight() {
+        return capacity();
+    }
+
+    /**
+     * Returns a snapshot of the statistics of this cache, e.g. to check whether the cache is sized well.
+     *
+     * <p>The default implementation does not record any statistics and only reports the {@linkplain #weight() weight}
+     * of this cache.
+     *
+     * @return a snapshot of the statistics of this cache
+     */
+    default CacheStats stats() {
+        return CacheStats.of(weight());
+    }
+
 }
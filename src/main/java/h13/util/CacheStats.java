@@ -0,0 +1,72 @@
+package h13.util;
+
+/**
+ * A snapshot of the statistics of a {@link Cache}.
+ *
+ * @param hitCount         the number of lookups which found a cached value
+ * @param missCount        the number of lookups which did not find a cached value
+ * @param loadSuccessCount the number of values which were computed and cached successfully
+ * @param loadFailureCount the number of value computations which failed or did not return a value
+ * @param totalLoadTime    the total time spent computing values in nanoseconds
+ * @param evictionCount    the number of mappings which were evicted
+ * @param weight           the total weight of the mappings at the time of the snapshot
+ * @see Cache#stats()
+ */
+public record CacheStats(
+    long hitCount,
+    long missCount,
+    long loadSuccessCount,
+    long loadFailureCount,
+    long totalLoadTime,
+    long evictionCount,
+    long weight
+) {
+
+    /**
+     * Returns the snapshot of a cache with the specified weight which does not record any statistics.
+     *
+     * @param weight the total weight of the mappings of the cache
+     * @return the snapshot of a cache which does not record any statistics
+     */
+    public static CacheStats of(long weight) {
+        return new CacheStats(0, 0, 0, 0, 0, 0, weight);
+    }
+
+    /**
+     * Returns the number of lookups.
+     *
+     * @return the number of lookups
+     */
+    public long requestCount() {
+        return hitCount + missCount;
+    }
+
+    /**
+     * Returns the ratio of lookups which found a cached value.
+     *
+     * @return the ratio of lookups which found a cached value, or 1 if there were no lookups
+     */
+    public double hitRate() {
+        long requests = requestCount();
+        return requests == 0 ? 1 : (double) hitCount / requests;
+    }
+
+    /**
+     * Returns the number of value computations.
+     *
+     * @return the number of value computations
+     */
+    public long loadCount() {
+        return loadSuccessCount + loadFailureCount;
+    }
+
+    /**
+     * Returns the average time spent computing a value in nanoseconds.
+     *
+     * @return the average time spent computing a value in nanoseconds, or 0 if no values were computed
+     */
+    public double averageLoadPenalty() {
+        long loads = loadCount();
+        return loads == 0 ? 0 : (double) totalLoadTime / loads;
+    }
+}
@@ -0,0 +1,365 @@
+package h13.util;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * A thread-safe cache implementation which approximates a least-recently used eviction policy by sampling.
+ *
+ * <p>The mappings are stored in a {@link ConcurrentHashMap}, so reads are lock-free and only record the time of the
+ * access instead of reordering a list like {@link LRUCache}. If the cache exceeds its capacity, a few mappings are
+ * sampled and the least recently used one of them is evicted. The samples are taken by a cursor which sweeps over all
+ * mappings, so every mapping is considered for eviction eventually.
+ *
+ * <p>The cache can be bounded by the number of its mappings and by their total weight given by a {@link Weigher}, e.g.
+ * the number of bytes they retain. Mappings are evicted while either bound is exceeded.
+ *
+ * <p>{@link #computeIfAbsent(Object, Function)} is atomic per key: the mapping function is applied at most once per
+ * key while other keys can be accessed concurrently. The mapping function must not modify this cache.
+ *
+ * <p>The cache records {@linkplain #stats() statistics} with striped counters, so recording them does not contend
+ * between threads.
+ *
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of mapped values
+ */
+public class ConcurrentLRUCache<K, V> implements Cache<K, V> {
+
+    /**
+     * The number of mappings sampled to evict one of them.
+     */
+    private static final int SAMPLE_SIZE = 8;
+
+    /**
+     * The mappings of this cache.
+     */
+    private final ConcurrentHashMap<K, Node<V>> map;
+
+    /**
+     * The maximum number of key-value mappings this cache can hold.
+     */
+    private final int capacity;
+
+    /**
+     * The maximum total weight of the key-value mappings this cache can hold.
+     */
+    private final long maxWeight;
+
+    /**
+     * The weigher which calculates the weights of the mappings.
+     */
+    private final Weigher<? super K, ? super V> weigher;
+
+    /**
+     * The total weight of the key-value mappings in this cache.
+     */
+    private final AtomicLong weight = new AtomicLong();
+
+    /**
+     * The number of lookups which found a cached value.
+     */
+    private final LongAdder hitCount = new LongAdder();
+
+    /**
+     * The number of lookups which did not find a cached value.
+     */
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * The number of values which were computed and cached successfully.
+     */
+    private final LongAdder loadSuccessCount = new LongAdder();
+
+    /**
+     * The number of value computations which failed or did not return a value.
+     */
+    private final LongAdder loadFailureCount = new LongAdder();
+
+    /**
+     * The total time spent computing values in nanoseconds.
+     */
+    private final LongAdder totalLoadTime = new LongAdder();
+
+    /**
+     * The number of mappings which were evicted.
+     */
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * The lock which serializes evictions.
+     */
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    /**
+     * The cursor which samples the mappings to evict, guarded by {@link #evictionLock}.
+     */
+    private @Nullable Iterator<Map.Entry<K, Node<V>>> cursor;
+
+    /**
+     * Constructs a new, empty cache with the specified maximum capacity.
+     *
+     * @param capacity the maximum number of key-value mappings this cache can hold
+     * @throws IllegalArgumentException if the capacity is negative
+     */
+    public ConcurrentLRUCache(int capacity) {
+        this(capacity, capacity, Weigher.singleton());
+    }
+
+    /**
+     * Constructs a new, empty cache which is only bounded by the total weight of its mappings.
+     *
+     * @param maxWeight the maximum total weight of the key-value mappings this cache can hold
+     * @param weigher   the weigher which calculates the weights of the mappings
+     * @throws IllegalArgumentException if the maximum weight is negative
+     */
+    public ConcurrentLRUCache(long maxWeight, Weigher<? super K, ? super V> weigher) {
+        this(Integer.MAX_VALUE, maxWeight, weigher);
+    }
+
+    /**
+     * Constructs a new, empty cache which is bounded by the number and the total weight of its mappings.
+     *
+     * @param capacity  the maximum number of key-value mappings this cache can hold
+     * @param maxWeight the maximum total weight of the key-value mappings this cache can hold
+     * @param weigher   the weigher which calculates the weights of the mappings
+     * @throws IllegalArgumentException if the capacity or the maximum weight is negative
+     */
+    public ConcurrentLRUCache(int capacity, long maxWeight, Weigher<? super K, ? super V> weigher) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative");
+        }
+        if (maxWeight < 0) {
+            throw new IllegalArgumentException("Maximum weight cannot be negative");
+        }
+        this.map = new ConcurrentHashMap<>();
+        this.capacity = capacity;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    @Override
+    public @Nullable V get(K key) {
+        Node<V> node = map.get(key);
+        if (node == null) {
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        node.touch();
+        return node.value;
+    }
+
+    @Override
+    public @Nullable V peek(K key) {
+        Node<V> node = map.get(key);
+        return node == null ? null : node.value;
+    }
+
+    @Override
+    public @Nullable V put(K key, V value) {
+        Node<V> node = new Node<>(value, weigher.weigh(key, value));
+        Node<V> previous = map.put(key, node);
+        weight.addAndGet(previous == null ? node.weight : node.weight - previous.weight);
+        evict();
+        return previous == null ? null : previous.value;
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mapper) {
+        Node<V> node = map.get(key);
+        if (node == null) {
+            boolean[] loaded = new boolean[1];
+            node = map.computeIfAbsent(key, k -> load(k, mapper, loaded));
+            if (node == null) {
+                return null;
+            }
+            if (loaded[0]) {
+                weight.addAndGet(node.weight);
+                evict();
+            } else {
+                // Loaded concurrently by another thread
+                hitCount.increment();
+            }
+        } else {
+            hitCount.increment();
+        }
+        node.touch();
+        return node.value;
+    }
+
+    /**
+     * Computes the value of the specified key and records the load.
+     *
+     * @param key    the key whose value is computed
+     * @param mapper the function to compute the value
+     * @param loaded the flag which is set if the value was computed successfully
+     * @return the node of the computed value, or {@code null} if no value was computed
+     */
+    private @Nullable Node<V> load(K key, Function<? super K, ? extends V> mapper, boolean[] loaded) {
+        missCount.increment();
+        long start = System.nanoTime();
+        V value;
+        try {
+            value = mapper.apply(key);
+        } catch (RuntimeException | Error e) {
+            loadFailureCount.increment();
+            throw e;
+        } finally {
+            totalLoadTime.add(System.nanoTime() - start);
+        }
+        if (value == null) {
+            loadFailureCount.increment();
+            return null;
+        }
+        loadSuccessCount.increment();
+        loaded[0] = true;
+        return new Node<>(value, weigher.weigh(key, value));
+    }
+
+    /**
+     * Returns whether this cache exceeds its capacity or maximum weight.
+     *
+     * @return {@code true} if this cache exceeds its capacity or maximum weight
+     */
+    private boolean isOverflowing() {
+        return map.size() > capacity || weight.get() > maxWeight;
+    }
+
+    /**
+     * Evicts sampled mappings until this cache does not exceed its capacity and maximum weight.
+     */
+    private void evict() {
+        if (!isOverflowing()) {
+            return;
+        }
+        evictionLock.lock();
+        try {
+            while (isOverflowing()) {
+                Map.Entry<K, Node<V>> victim = null;
+                for (int i = 0; i < SAMPLE_SIZE; i++) {
+                    if (cursor == null || !cursor.hasNext()) {
+                        cursor = map.entrySet().iterator();
+                        if (!cursor.hasNext()) {
+                            return;
+                        }
+                    }
+                    Map.Entry<K, Node<V>> entry = cursor.next();
+                    if (victim == null || entry.getValue().accessed < victim.getValue().accessed) {
+                        victim = entry;
+                    }
+                }
+                if (remove(victim.getKey(), victim.getValue())) {
+                    evictionCount.increment();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Removes the specified mapping if it is still present and updates the total weight.
+     *
+     * @param key  the key of the mapping
+     * @param node the node of the mapping
+     * @return {@code true} if the mapping was removed
+     */
+    private boolean remove(K key, Node<V> node) {
+        if (map.remove(key, node)) {
+            weight.addAndGet(-node.weight);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void clear() {
+        map.forEach(this::remove);
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public long weight() {
+        return weight.get();
+    }
+
+    @Override
+    public long maxWeight() {
+        return maxWeight;
+    }
+
+    @Override
+    public CacheStats stats() {
+        return new CacheStats(
+            hitCount.sum(),
+            missCount.sum(),
+            loadSuccessCount.sum(),
+            loadFailureCount.sum(),
+            totalLoadTime.sum(),
+            evictionCount.sum(),
+            weight.get()
+        );
+    }
+
+    /**
+     * A cached value with the time of its last access.
+     *
+     * @param <V> the type of the value
+     */
+    private static final class Node<V> {
+
+        /**
+         * The cached value.
+         */
+        final V value;
+
+        /**
+         * The weight of the cached value.
+         */
+        final long weight;
+
+        /**
+         * The time of the last access in nanoseconds, see {@link System#nanoTime()}.
+         */
+        volatile long accessed;
+
+        /**
+         * Constructs a node for the specified value which is accessed now.
+         *
+         * @param value  the cached value
+         * @param weight the weight of the cached value
+         * @throws IllegalArgumentException if the weight is negative
+         */
+        Node(V value, long weight) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weight cannot be negative");
+            }
+            this.value = value;
+            this.weight = weight;
+            this.accessed = System.nanoTime();
+        }
+
+        /**
+         * Records an access of the value.
+         */
+        void touch() {
+            accessed = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,513 @@
+package h13.util;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.zip.CRC32C;
+
+/**
+ * A thread-safe cache which persists arrays of doubles, e.g. rendered noise tiles, in a directory, so that they survive
+ * restarts of the application.
+ *
+ * <p>Every value is stored in its own file which is named after the 64-bit fingerprint of its key, so the fingerprints
+ * must be stable across runs. Since fingerprints may collide, every file also contains the encoded key, e.g. the
+ * parameters and the area of a rendered tile, which is compared with the requested key when the file is read. The
+ * files are read and written through memory mappings and contain a header with a CRC-32C checksum of the key and the
+ * values. Files which are truncated or corrupted are deleted when they are read and treated as absent. Files which were
+ * written for another key are treated as absent and overwritten when the value of the requested key is written.
+ * Values are written to a temporary file first, forced to the storage device and moved into place atomically, so
+ * readers never see partially written files, even after a crash.
+ *
+ * <p>The cache is bounded by the total number of bytes of its files and evicts the least recently used files. The
+ * accesses are only recorded in memory to avoid a system call per hit, so the files which are taken over on
+ * construction are ordered by their modification times, i.e. the times they were written.
+ *
+ * <p>Unlike {@link ConcurrentLRUCache}, {@link #computeIfAbsent(Object, Function)} is not atomic: concurrent calls
+ * for the same absent key may compute the value more than once, and the last written value is kept. Failures to
+ * write a value are ignored, since the value can always be computed again.
+ *
+ * @param <K> the type of keys maintained by this cache
+ */
+public class DiskCache<K> implements Cache<K, double[]> {
+
+    /**
+     * The magic number at the start of every file.
+     */
+    private static final int MAGIC = 0x48313355;
+
+    /**
+     * The number of bytes of the header of every file: the magic number, the number of values, the number of bytes of
+     * the encoded key, the fingerprint of the key and the checksum of the encoded key and the values. The header is
+     * followed by the encoded key and the values.
+     */
+    private static final int HEADER_BYTES = Integer.BYTES + Integer.BYTES + Integer.BYTES + Long.BYTES + Long.BYTES;
+
+    /**
+     * The file extension of the cached values.
+     */
+    private static final String EXTENSION = ".tile";
+
+    /**
+     * The directory which contains the files of the cached values.
+     */
+    private final Path directory;
+
+    /**
+     * The maximum total number of bytes of the files of this cache.
+     */
+    private final long maxBytes;
+
+    /**
+     * The function which computes the fingerprints of the keys.
+     */
+    private final ToLongFunction<? super K> fingerprint;
+
+    /**
+     * The function which encodes the keys to identify them in the files.
+     */
+    private final Function<? super K, byte[]> encoder;
+
+    /**
+     * The files of this cache, identified by the fingerprints of their keys.
+     */
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * The total number of bytes of the files of this cache.
+     */
+    private final AtomicLong weight = new AtomicLong();
+
+    /**
+     * The logical clock which orders the accesses of the files.
+     */
+    private final AtomicLong clock = new AtomicLong();
+
+    /**
+     * The number of lookups which found a cached value.
+     */
+    private final LongAdder hitCount = new LongAdder();
+
+    /**
+     * The number of lookups which did not find a cached value.
+     */
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * The number of values which were computed and cached successfully.
+     */
+    private final LongAdder loadSuccessCount = new LongAdder();
+
+    /**
+     * The number of value computations which failed or did not return a value.
+     */
+    private final LongAdder loadFailureCount = new LongAdder();
+
+    /**
+     * The total time spent computing values in nanoseconds.
+     */
+    private final LongAdder totalLoadTime = new LongAdder();
+
+    /**
+     * The number of files which were evicted.
+     */
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * The lock which serializes evictions.
+     */
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    /**
+     * Constructs a cache which stores its values in the specified directory. The directory is created if necessary,
+     * and the files which are already contained in it are taken over.
+     *
+     * @param directory   the directory which contains the files of the cached values
+     * @param maxBytes    the maximum total number of bytes of the files of this cache
+     * @param fingerprint the function which computes the fingerprints of the keys, which must be stable across runs
+     * @param encoder     the function which encodes the keys, which must be stable across runs and injective
+     * @throws IllegalArgumentException if the maximum number of bytes is negative
+     * @throws IOException              if the directory cannot be created or read
+     */
+    public DiskCache(
+        Path directory,
+        long maxBytes,
+        ToLongFunction<? super K> fingerprint,
+        Function<? super K, byte[]> encoder
+    ) throws IOException {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Maximum number of bytes cannot be negative");
+        }
+        this.directory = Files.createDirectories(directory);
+        this.maxBytes = maxBytes;
+        this.fingerprint = fingerprint;
+        this.encoder = encoder;
+        Map<Path, FileTime> modified = new HashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path file : files) {
+                modified.put(file, Files.getLastModifiedTime(file));
+            }
+        }
+        // The oldest files are taken over as the least recently used ones
+        List<Path> existing = new ArrayList<>(modified.keySet());
+        existing.sort(Comparator.comparing(modified::get));
+        for (Path file : existing) {
+            String name = file.getFileName().toString();
+            long key;
+            try {
+                key = Long.parseUnsignedLong(name.substring(0, name.length() - EXTENSION.length()), 16);
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            long size = Files.size(file);
+            entries.put(key, new Entry(size, clock.incrementAndGet()));
+            weight.addAndGet(size);
+        }
+        // Temporary files of writes which were interrupted by a crash
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.tmp")) {
+            files.forEach(DiskCache::delete);
+        }
+        evict();
+    }
+
+    /**
+     * Returns the file of the value with the specified fingerprint.
+     *
+     * @param key the fingerprint of the key
+     * @return the file of the value with the specified fingerprint
+     */
+    private Path file(long key) {
+        return directory.resolve(String.format("%016x%s", key, EXTENSION));
+    }
+
+    @Override
+    public double @Nullable [] get(K key) {
+        long fingerprint = this.fingerprint.applyAsLong(key);
+        double[] value = read(fingerprint, encoder.apply(key));
+        if (value == null) {
+            missCount.increment();
+        } else {
+            hitCount.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Associates the specified value with the specified key in this cache.
+     *
+     * <p>The previous value is not read from its file, since that would cost as much as writing the new value.
+     *
+     * @param key   the key with which the specified value is to be associated
+     * @param value the value to be associated with the specified key
+     * @return always {@code null}
+     */
+    @Override
+    public double @Nullable [] put(K key, double[] value) {
+        write(this.fingerprint.applyAsLong(key), encoder.apply(key), value);
+        return null;
+    }
+
+    @Override
+    public double[] computeIfAbsent(K key, Function<? super K, ? extends double[]> mapper) {
+        long fingerprint = this.fingerprint.applyAsLong(key);
+        byte[] encoded = encoder.apply(key);
+        double[] value = read(fingerprint, encoded);
+        if (value != null) {
+            hitCount.increment();
+            return value;
+        }
+        missCount.increment();
+        long start = System.nanoTime();
+        try {
+            value = mapper.apply(key);
+        } catch (RuntimeException | Error e) {
+            loadFailureCount.increment();
+            throw e;
+        } finally {
+            totalLoadTime.add(System.nanoTime() - start);
+        }
+        if (value == null) {
+            loadFailureCount.increment();
+            return null;
+        }
+        loadSuccessCount.increment();
+        write(fingerprint, encoded, value);
+        return value;
+    }
+
+    /**
+     * Reads the value of the specified key from its file. Files which cannot be read or are invalid are deleted, while
+     * files which were written for another key with the same fingerprint are kept until they are overwritten.
+     *
+     * @param key     the fingerprint of the key
+     * @param encoded the encoded key
+     * @return the value of the specified key, or {@code null} if there is no valid file for it
+     */
+    private double @Nullable [] read(long key, byte[] encoded) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        Path file = file(key);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size != entry.size) {
+                discard(key, entry);
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            int magic = buffer.getInt();
+            int length = buffer.getInt();
+            int keyLength = buffer.getInt();
+            long storedKey = buffer.getLong();
+            long checksum = buffer.getLong();
+            if (magic != MAGIC || storedKey != key || keyLength < 0 || length < 0
+                || HEADER_BYTES + keyLength + (long) Double.BYTES * length != size) {
+                discard(key, entry);
+                return null;
+            }
+            if (checksum(buffer.duplicate()) != checksum) {
+                discard(key, entry);
+                return null;
+            }
+            byte[] storedEncoded = new byte[keyLength];
+            buffer.get(storedEncoded);
+            if (!Arrays.equals(storedEncoded, encoded)) {
+                // A miss for another key with the same fingerprint, whose file is overwritten by the value of this key
+                return null;
+            }
+            double[] value = new double[length];
+            buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(value);
+            entry.accessed = clock.incrementAndGet();
+            return value;
+        } catch (IOException e) {
+            discard(key, entry);
+            return null;
+        }
+    }
+
+    /**
+     * Writes the specified value to the file of the specified fingerprint and evicts files if this cache exceeds its
+     * maximum number of bytes. Failures are ignored.
+     *
+     * @param key     the fingerprint of the key
+     * @param encoded the encoded key
+     * @param value   the value to write
+     */
+    private void write(long key, byte[] encoded, double[] value) {
+        long size = HEADER_BYTES + encoded.length + (long) Double.BYTES * value.length;
+        if (size > maxBytes || size > Integer.MAX_VALUE) {
+            return;
+        }
+        Path file = file(key);
+        Path temporary;
+        try {
+            temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        } catch (IOException e) {
+            return;
+        }
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+                ByteBuffer contents = buffer.slice(HEADER_BYTES, (int) (size - HEADER_BYTES))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+                contents.put(encoded);
+                contents.slice().order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().put(value);
+                buffer.putInt(MAGIC).putInt(value.length).putInt(encoded.length).putLong(key)
+                    .putLong(checksum(contents.rewind()));
+                // The contents must be durable before the file is moved into place, otherwise a crash could leave
+                // a file with a valid name but missing contents
+                buffer.force();
+            }
+        } catch (IOException e) {
+            delete(temporary);
+            return;
+        }
+        // The file is moved into place while its entry is replaced, so a reader which discards the previous entry
+        // cannot delete the new file
+        Entry entry = new Entry(size, clock.incrementAndGet());
+        entries.compute(key, (k, previous) -> {
+            try {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                delete(temporary);
+                return previous;
+            }
+            weight.addAndGet(previous == null ? size : size - previous.size);
+            return entry;
+        });
+        evict();
+    }
+
+    /**
+     * Returns the CRC-32C checksum of the remaining bytes of the specified buffer.
+     *
+     * @param buffer the buffer whose remaining bytes are checksummed
+     * @return the checksum of the remaining bytes of the specified buffer
+     */
+    private static long checksum(ByteBuffer buffer) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer);
+        return crc.getValue();
+    }
+
+    /**
+     * Evicts the least recently used files until this cache does not exceed its maximum number of bytes.
+     */
+    private void evict() {
+        if (weight.get() <= maxBytes) {
+            return;
+        }
+        evictionLock.lock();
+        try {
+            // The access times are copied, since they may change while the snapshot is sorted
+            List<Candidate> candidates = new ArrayList<>(entries.size());
+            entries.forEach((key, entry) -> candidates.add(new Candidate(key, entry, entry.accessed)));
+            candidates.sort(Comparator.comparingLong(Candidate::accessed));
+            for (int i = 0; i < candidates.size() && weight.get() > maxBytes; i++) {
+                Candidate candidate = candidates.get(i);
+                if (discard(candidate.key(), candidate.entry())) {
+                    evictionCount.increment();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Removes the specified entry if it is still present and deletes its file. The file is deleted while the entry is
+     * removed, so a concurrent write of the same key either replaces the entry first, in which case its new file is
+     * kept, or moves its new file into place afterwards.
+     *
+     * @param key   the fingerprint of the key
+     * @param entry the entry to remove
+     * @return {@code true} if the entry was removed
+     */
+    private boolean discard(long key, Entry entry) {
+        boolean[] removed = new boolean[1];
+        entries.computeIfPresent(key, (k, current) -> {
+            if (current != entry) {
+                return current;
+            }
+            weight.addAndGet(-entry.size);
+            delete(file(key));
+            removed[0] = true;
+            return null;
+        });
+        return removed[0];
+    }
+
+    /**
+     * Deletes the specified file. Failures are ignored, e.g. if the file is still mapped on platforms which do not
+     * allow deleting mapped files.
+     *
+     * @param file the file to delete
+     */
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // The file is overwritten or taken over again by a later run
+        }
+    }
+
+    @Override
+    public void clear() {
+        entries.forEach(this::discard);
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public int capacity() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public long weight() {
+        return weight.get();
+    }
+
+    @Override
+    public long maxWeight() {
+        return maxBytes;
+    }
+
+    @Override
+    public CacheStats stats() {
+        return new CacheStats(
+            hitCount.sum(),
+            missCount.sum(),
+            loadSuccessCount.sum(),
+            loadFailureCount.sum(),
+            totalLoadTime.sum(),
+            evictionCount.sum(),
+            weight.get()
+        );
+    }
+
+    /**
+     * A file of a cached value with the time of its last access.
+     */
+    private static final class Entry {
+
+        /**
+         * The number of bytes of the file.
+         */
+        final long size;
+
+        /**
+         * The time of the last access according to the clock of the cache.
+         */
+        volatile long accessed;
+
+        /**
+         * Constructs an entry for a file with the specified size and time of the last access.
+         *
+         * @param size     the number of bytes of the file
+         * @param accessed the time of the last access according to the clock of the cache
+         */
+        Entry(long size, long accessed) {
+            this.size = size;
+            this.accessed = accessed;
+        }
+    }
+
+    /**
+     * An entry which may be evicted, with the time of its last access when the eviction started.
+     *
+     * @param key      the fingerprint of the key
+     * @param entry    the entry which may be evicted
+     * @param accessed the time of the last access of the entry when the eviction started
+     */
+    private record Candidate(long key, Entry entry, long accessed) {
+    }
+}
@@ -0,0 +1,33 @@
+package h13.util;
+
+/**
+ * Calculates the weights of cache entries, e.g. the number of bytes retained by them, so that a cache can be bounded
+ * by the total weight of its entries instead of their number.
+ *
+ * @param <K> the type of keys maintained by the cache
+ * @param <V> the type of mapped values
+ * @see Cache#weight()
+ */
+@FunctionalInterface
+public interface Weigher<K, V> {
+
+    /**
+     * Returns a weigher which weighs every entry with 1, so that the weight of a cache is its size.
+     *
+     * @param <K> the type of keys maintained by the cache
+     * @param <V> the type of mapped values
+     * @return a weigher which weighs every entry with 1
+     */
+    static <K, V> Weigher<K, V> singleton() {
+        return (key, value) -> 1;
+    }
+
+    /**
+     * Returns the weight of the specified entry. The weight of an entry must not change while it is cached.
+     *
+     * @param key   the key of the entry
+     * @param value the value of the entry
+     * @return the non-negative weight of the entry
+     */
+    long weigh(K key, V value);
+}
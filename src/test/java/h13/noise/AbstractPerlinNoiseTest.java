@@ -0,0 +1,58 @@
+package h13.noise;
+
+import javafx.geometry.Point2D;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+/**
+ * Tests the storage of the gradient vectors of {@link AbstractPerlinNoise}.
+ */
+public class AbstractPerlinNoiseTest {
+
+    @Test
+    public void testGradientTableMatchesGradients() {
+        SimplePerlinNoise noise = new SimplePerlinNoise(20, 10, new Random(42));
+        Point2D[] gradients = noise.getGradients();
+        GradientTable table = noise.getGradientTable();
+        assertEquals(21 * 11, gradients.length);
+        for (int y = 0; y <= 10; y++) {
+            for (int x = 0; x <= 20; x++) {
+                Point2D gradient = gradients[21 * y + x];
+                assertEquals(gradient, noise.getGradient(x, y));
+                assertEquals(gradient, table.get(table.index(x, y)));
+            }
+        }
+    }
+
+    @Test
+    public void testGetGradientsIsSnapshot() {
+        SimplePerlinNoise noise = new SimplePerlinNoise(4, 4, new Random(42));
+        Point2D[] gradients = noise.getGradients();
+        Point2D gradient = noise.getGradient(1, 1);
+        gradients[5 + 1] = new Point2D(2, 2);
+        assertEquals(gradient, noise.getGradient(1, 1));
+        assertNotSame(gradients, noise.getGradients());
+    }
+
+    @Test
+    public void testGradientsAreStoredOnce() {
+        SimplePerlinNoise noise = new SimplePerlinNoise(20, 10, new Random(42));
+        assertEquals(2L * Double.BYTES * 21 * 11, noise.retainedSize());
+    }
+
+    @Test
+    public void testGetGradientOfTableNoise() {
+        SimplePerlinNoise noise = new SimplePerlinNoise(8, 8, new Random(42));
+        SimplePerlinNoise copy = new SimplePerlinNoise(8, 8, 0.1, new Random(42), noise.getGradientTable());
+        for (int y = 0; y <= 8; y++) {
+            for (int x = 0; x <= 8; x++) {
+                assertEquals(noise.getGradient(x, y), copy.getGradient(x, y));
+            }
+        }
+        assertEquals(noise.getGradients().length, copy.getGradients().length);
+    }
+}
@@ -0,0 +1,73 @@
+package h13.noise;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that {@link BlockedGradientTable} stores the same gradient vectors as the row-major table.
+ */
+public class BlockedGradientTableTest {
+
+    @Test
+    public void testGradientsMatchArrayTable() {
+        SimplePerlinNoise noise = new SimplePerlinNoise(21, 14, new Random(42));
+        ArrayGradientTable table = (ArrayGradientTable) noise.getGradientTable();
+        BlockedGradientTable blocked = BlockedGradientTable.of(table);
+        assertEquals(table.getWidth(), blocked.getWidth());
+        assertEquals(table.getHeight(), blocked.getHeight());
+        for (int y = 0; y < table.getHeight(); y++) {
+            for (int x = 0; x < table.getWidth(); x++) {
+                assertEquals(table.get(table.index(x, y)), blocked.get(blocked.index(x, y)));
+            }
+        }
+    }
+
+    @Test
+    public void testIndicesAreDistinctAndPadded() {
+        BlockedGradientTable blocked = BlockedGradientTable.of(
+            (ArrayGradientTable) new SimplePerlinNoise(21, 14, new Random(42)).getGradientTable()
+        );
+        int blocks = (22 + 3) / 4 * ((15 + 3) / 4);
+        Set<Integer> indices = new HashSet<>();
+        for (int y = 0; y < 15; y++) {
+            for (int x = 0; x < 22; x++) {
+                int index = blocked.index(x, y);
+                assertTrue(index >= 0 && index < blocks * 16);
+                assertTrue(indices.add(index));
+            }
+        }
+        assertEquals(2L * 16 * blocks * Double.BYTES, blocked.retainedSize());
+    }
+
+    @Test
+    public void testCornersOfBlockAreConsecutive() {
+        BlockedGradientTable blocked = BlockedGradientTable.of(
+            (ArrayGradientTable) new SimplePerlinNoise(15, 15, new Random(1)).getGradientTable()
+        );
+        int first = blocked.index(4, 8);
+        for (int y = 0; y < BlockedGradientTable.BLOCK_SIZE; y++) {
+            for (int x = 0; x < BlockedGradientTable.BLOCK_SIZE; x++) {
+                assertEquals(first + y * BlockedGradientTable.BLOCK_SIZE + x, blocked.index(4 + x, 8 + y));
+            }
+        }
+    }
+
+    @Test
+    public void testBlockedNoiseMatchesSimpleNoise() {
+        PerlinNoise simple = new SimplePerlinNoise(90, 60, 0.07, new Random(42));
+        PerlinNoise blocked = PerlinNoise.blocked(90, 60, 0.07, new Random(42));
+        double[] expected = new double[90 * 60];
+        double[] actual = new double[90 * 60];
+        simple.compute(0, 0, 90, 60, expected, 0, 90);
+        blocked.compute(0, 0, 90, 60, actual, 0, 90);
+        assertArrayEquals(expected, actual);
+        assertEquals(simple.fingerprint(), blocked.fingerprint());
+    }
+}
@@ -0,0 +1,84 @@
+package h13.noise;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests the direct and memory-mapped gradient tables of {@link BufferGradientTable}.
+ */
+public class BufferGradientTableTest {
+
+    @TempDir
+    Path directory;
+
+    private static void assertSameGradients(GradientTable expected, GradientTable actual, int width, int height) {
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int index = expected.index(x, y);
+                assertEquals(expected.getX(index), actual.getX(actual.index(x, y)));
+                assertEquals(expected.getY(index), actual.getY(actual.index(x, y)));
+            }
+        }
+    }
+
+    @Test
+    public void testAllocateMatchesSeeded() {
+        ArrayGradientTable expected = new ArrayGradientTable(150, 70, GradientTiles.generate(150, 70, 42));
+        BufferGradientTable table = BufferGradientTable.allocate(150, 70, 42);
+        assertSameGradients(expected, table, 150, 70);
+        assertEquals(expected.fingerprint(), table.fingerprint());
+    }
+
+    @Test
+    public void testMapReusesFile() throws IOException {
+        Path file = directory.resolve("gradients.bin");
+        BufferGradientTable table = BufferGradientTable.map(file, 150, 70, 42);
+        assertSameGradients(BufferGradientTable.allocate(150, 70, 42), table, 150, 70);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(0));
+        BufferGradientTable reused = BufferGradientTable.map(file, 150, 70, 42);
+        assertEquals(0, Files.getLastModifiedTime(file).toMillis());
+        assertEquals(table.fingerprint(), reused.fingerprint());
+        BufferGradientTable replaced = BufferGradientTable.map(file, 150, 70, 43);
+        assertNotEquals(table.fingerprint(), replaced.fingerprint());
+        assertSameGradients(BufferGradientTable.allocate(150, 70, 43), replaced, 150, 70);
+    }
+
+    @Test
+    public void testMapReplacesInvalidFile() throws IOException {
+        Path file = directory.resolve("gradients.bin");
+        Files.write(file, new byte[]{1, 2, 3});
+        BufferGradientTable table = BufferGradientTable.map(file, 10, 10, 42);
+        assertEquals(BufferGradientTable.allocate(10, 10, 42).fingerprint(), table.fingerprint());
+    }
+
+    @Test
+    public void testSizeLimit() {
+        assertThrows(IllegalArgumentException.class, () -> BufferGradientTable.allocate(20000, 20000, 42));
+        assertThrows(IllegalArgumentException.class,
+            () -> BufferGradientTable.map(directory.resolve("large.bin"), 20000, 20000, 42));
+    }
+
+    @Test
+    public void testFactoriesMatchSeeded() throws IOException {
+        PerlinNoise expected = PerlinNoise.seeded(100, 50, 0.05, 42);
+        PerlinNoise offHeap = PerlinNoise.offHeap(100, 50, 0.05, 42);
+        PerlinNoise mapped = PerlinNoise.mapped(directory.resolve("noise.bin"), 100, 50, 0.05, 42);
+        assertEquals(expected, offHeap);
+        assertEquals(expected, mapped);
+        for (int y = 0; y < 50; y++) {
+            for (int x = 0; x < 100; x++) {
+                assertEquals(expected.compute(x, y), offHeap.compute(x, y));
+                assertEquals(expected.compute(x, y), mapped.compute(x, y));
+            }
+        }
+    }
+}
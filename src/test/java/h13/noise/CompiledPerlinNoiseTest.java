@@ -0,0 +1,95 @@
+package h13.noise;
+
+import h13.util.ConcurrentLRUCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Tests that {@link CompiledPerlinNoise} computes the same values as the chains it compiles.
+ */
+public class CompiledPerlinNoiseTest {
+
+    /**
+     * Returns chains of every supported shape over every common gradient table.
+     *
+     * @return the chains to compile
+     */
+    private static List<PerlinNoise> chains() {
+        PerlinNoise array = new SimplePerlinNoise(120, 80, 0.05, new Random(42));
+        PerlinNoise paged = PerlinNoise.paged(120, 80, 0.05, 42);
+        PerlinNoise hashed = PerlinNoise.hashed(120, 80, 0.05, 42);
+        PerlinNoise improved = PerlinNoise.improved(new SimplePerlinNoise(120, 80, 0.05, new Random(42)));
+        return List.of(
+            array,
+            paged,
+            hashed,
+            improved,
+            new FractalPerlinNoise(paged, 1, 4, 2, 0.5),
+            PerlinNoise.normalized(new FractalPerlinNoise(improved, 1, 3, 2, 0.5)),
+            PerlinNoise.normalized(array)
+        );
+    }
+
+    @Test
+    public void testSamplesMatchChain() {
+        for (PerlinNoise chain : chains()) {
+            PerlinNoise compiled = PerlinNoise.compile(chain);
+            assertInstanceOf(CompiledPerlinNoise.class, compiled);
+            for (int y = 0; y < 80; y += 3) {
+                for (int x = 0; x < 120; x += 3) {
+                    assertEquals(chain.compute(x, y), compiled.compute(x, y), chain.getClass().getName());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRegionsMatchChain() {
+        for (PerlinNoise chain : chains()) {
+            PerlinNoise compiled = PerlinNoise.compile(chain);
+            double[] expected = new double[100 * 60];
+            double[] actual = new double[100 * 60];
+            chain.compute(10, 10, 110, 70, expected, 0, 100);
+            compiled.compute(10, 10, 110, 70, actual, 0, 100);
+            for (int i = 0; i < expected.length; i++) {
+                assertEquals(expected[i], actual[i], RowKernel.TOLERANCE);
+            }
+        }
+    }
+
+    @Test
+    public void testCachedLayersAndCullingMatchChain() {
+        PerlinNoise base = PerlinNoise.paged(120, 80, 0.05, 42);
+        for (boolean cached : new boolean[] {false, true}) {
+            FractalPerlinNoise fractal = new FractalPerlinNoise(base, 1, 8, 2, 0.5);
+            fractal.setSamplingScale(1);
+            fractal.setAmplitudeEpsilon(1.0 / 256);
+            if (cached) {
+                fractal.setLayerCache(new ConcurrentLRUCache<>(16));
+            }
+            for (PerlinNoise chain : List.of(fractal, PerlinNoise.normalized(fractal))) {
+                PerlinNoise compiled = PerlinNoise.compile(chain);
+                assertInstanceOf(CompiledPerlinNoise.class, compiled);
+                double[] expected = new double[7 + 100 * 60];
+                double[] actual = new double[7 + 100 * 60];
+                chain.compute(10, 10, 100, 70, expected, 7, 100);
+                compiled.compute(10, 10, 100, 70, actual, 7, 100);
+                assertArrayEquals(expected, actual);
+            }
+        }
+    }
+
+    @Test
+    public void testSubclassesAreNotCompiled() {
+        PerlinNoise noise = new SimplePerlinNoise(10, 10, new Random(1)) {
+        };
+        assertSame(noise, PerlinNoise.compile(noise));
+    }
+}
@@ -0,0 +1,45 @@
+package h13.noise;
+
+import javafx.geometry.Point2D;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests the fixed gradient vectors of {@link FixedGradientTable}.
+ */
+public class FixedGradientTableTest {
+
+    @Test
+    public void testGradients() {
+        FixedGradientTable table = new FixedGradientTable();
+        Set<Point2D> gradients = new HashSet<>();
+        for (int i = 0; i < 8; i++) {
+            gradients.add(table.get(i));
+        }
+        assertEquals(Set.of(
+            new Point2D(1, 0), new Point2D(-1, 0), new Point2D(0, 1), new Point2D(0, -1),
+            new Point2D(1, 1), new Point2D(-1, 1), new Point2D(1, -1), new Point2D(-1, -1)
+        ), gradients);
+    }
+
+    @Test
+    public void testOnlyLowestBitsSelectGradient() {
+        FixedGradientTable table = new FixedGradientTable();
+        for (int i = -64; i < 64; i++) {
+            assertEquals(table.get(i & 7), table.get(i));
+        }
+    }
+
+    @Test
+    public void testDotMatchesComponents() {
+        FixedGradientTable table = new FixedGradientTable();
+        for (int i = -16; i < 16; i++) {
+            double expected = table.getX(i) * 0.25 + table.getY(i) * -0.75;
+            assertEquals(expected, table.dot(i, 0.25, -0.75));
+        }
+    }
+}
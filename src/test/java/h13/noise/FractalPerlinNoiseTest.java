@@ -0,0 +1,124 @@
+package h13.noise;
+
+import h13.util.ConcurrentLRUCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the region evaluation and octave culling of {@link FractalPerlinNoise}.
+ */
+public class FractalPerlinNoiseTest {
+
+    private static FractalPerlinNoise fractal(double frequency, int octaves, double persistence) {
+        SimplePerlinNoise noise = new SimplePerlinNoise(200, 100, frequency, new Random(42));
+        return new FractalPerlinNoise(noise, 1, octaves, 2, persistence);
+    }
+
+    @Test
+    public void testRegionMatchesSamplesByDefault() {
+        FractalPerlinNoise noise = fractal(0.02, 6, 0.5);
+        double[] out = new double[200 * 100];
+        noise.compute(0, 0, 200, 100, out, 0, 200);
+        for (int y = 0; y < 100; y++) {
+            for (int x = 0; x < 200; x++) {
+                assertEquals(noise.compute(x, y), out[y * 200 + x], 1e-12);
+            }
+        }
+    }
+
+    @Test
+    public void testLayerCacheKeepsValues() {
+        FractalPerlinNoise noise = fractal(0.02, 4, 0.5);
+        double[] expected = new double[50 * 50];
+        noise.compute(0, 0, 50, 50, expected, 0, 50);
+        noise.setLayerCache(new ConcurrentLRUCache<>(1024L * 1024, (k, v) -> (long) Double.BYTES * v.length));
+        double[] actual = new double[50 * 50];
+        noise.compute(0, 0, 50, 50, actual, 0, 50);
+        noise.compute(0, 0, 50, 50, actual, 0, 50);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], actual[i]);
+        }
+    }
+
+    @Test
+    public void testLayerCacheSkipsNoisesWithoutFingerprint() {
+        SimplePerlinNoise delegate = new SimplePerlinNoise(50, 50, 0.02, new Random(42)) {
+            @Override
+            public boolean hasFingerprint() {
+                return false;
+            }
+        };
+        FractalPerlinNoise noise = new FractalPerlinNoise(delegate, 1, 4, 2, 0.5);
+        ConcurrentLRUCache<FractalPerlinNoise.Layer, double[]> cache = new ConcurrentLRUCache<>(16);
+        noise.setLayerCache(cache);
+        noise.compute(0, 0, 50, 50, new double[50 * 50], 0, 50);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testWithFrequencyKeepsParameters() {
+        FractalPerlinNoise noise = fractal(0.02, 4, 0.5);
+        noise.setAmplitudeEpsilon(0.25);
+        FractalPerlinNoise derived = assertInstanceOf(FractalPerlinNoise.class, noise.withFrequency(0.01));
+        assertEquals(0.01, derived.getFrequency());
+        assertEquals(0.02, noise.getFrequency());
+        assertEquals(4, derived.getOctaves());
+        assertEquals(0.5, derived.getPersistence());
+        assertEquals(0.25, derived.getAmplitudeEpsilon());
+        assertEquals(fractal(0.01, 4, 0.5).compute(7, 9), derived.compute(7, 9));
+    }
+
+    @Test
+    public void testEpsilonBoundsSkippedAmplitudes() {
+        FractalPerlinNoise noise = fractal(0.02, 12, 0.5);
+        assertEquals(12, noise.getEvaluatedOctaves());
+        noise.setAmplitudeEpsilon(1.0 / 256);
+        int evaluated = noise.getEvaluatedOctaves();
+        // 2^-8 + 2^-9 + ... + 2^-11 is not below 2^-8, but 2^-9 + ... + 2^-11 is
+        assertEquals(9, evaluated);
+        double skipped = 0;
+        for (int i = evaluated; i < 12; i++) {
+            skipped += Math.pow(0.5, i);
+        }
+        assertTrue(skipped < noise.getAmplitudeEpsilon());
+    }
+
+    @Test
+    public void testEpsilonWithoutDecay() {
+        FractalPerlinNoise noise = fractal(0.02, 8, 1);
+        noise.setAmplitudeEpsilon(1.0 / 256);
+        assertEquals(8, noise.getEvaluatedOctaves());
+    }
+
+    @Test
+    public void testCullingOnlyAffectsRegions() {
+        FractalPerlinNoise noise = fractal(0.01, 10, 0.5);
+        double expected = noise.compute(17, 3);
+        noise.setSamplingScale(1);
+        noise.setAmplitudeEpsilon(1.0 / 256);
+        assertEquals(expected, noise.compute(17, 3));
+        double[] out = new double[20 * 10];
+        noise.compute(0, 0, 20, 10, out, 0, 20);
+        for (int y = 0; y < 10; y++) {
+            for (int x = 0; x < 20; x++) {
+                // The skipped octaves are not resolved or belong to the negligible tail
+                double skipped = 0;
+                double f = noise.getFrequency();
+                double a = 1;
+                for (int i = 0; i < 10; i++) {
+                    if (i >= noise.getEvaluatedOctaves() || !noise.isResolved(f)) {
+                        skipped += noise.delegate.compute(x * f, y * f) * a;
+                    }
+                    f *= 2;
+                    a *= 0.5;
+                }
+                assertEquals(noise.compute(x, y) - skipped, out[y * 20 + x], 1e-12);
+            }
+        }
+    }
+}
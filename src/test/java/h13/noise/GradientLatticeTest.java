@@ -0,0 +1,109 @@
+package h13.noise;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the weakly referenced pages of {@link GradientLattice} and the values of the noises which view it.
+ */
+public class GradientLatticeTest {
+
+    /**
+     * Computes the noise values of the whole noise domain.
+     *
+     * @param noise  the noise to compute
+     * @param width  the width of the noise domain
+     * @param height the height of the noise domain
+     * @return the noise values stored row by row
+     */
+    private static double[] compute(PerlinNoise noise, int width, int height) {
+        double[] values = new double[width * height];
+        noise.compute(0, 0, width, height, values, 0, width);
+        return values;
+    }
+
+    @Test
+    public void testPagedAndSharedMatchSeeded() {
+        double[] seeded = compute(PerlinNoise.seeded(150, 100, 0.05, 42), 150, 100);
+        assertArrayEquals(seeded, compute(PerlinNoise.paged(150, 100, 0.05, 42), 150, 100));
+        assertArrayEquals(seeded, compute(PerlinNoise.shared(150, 100, 0.05, 42), 150, 100));
+    }
+
+    @Test
+    public void testFingerprintsDifferFromSeeded() {
+        PerlinNoise paged = PerlinNoise.paged(150, 100, 0.05, 42);
+        assertEquals(paged.fingerprint(), PerlinNoise.paged(150, 100, 0.05, 42).fingerprint());
+        assertNotEquals(PerlinNoise.seeded(150, 100, 0.05, 42).fingerprint(), paged.fingerprint());
+    }
+
+    @Test
+    public void testSharedViewsSharePages() {
+        GradientLattice lattice = GradientLattice.shared(7);
+        assertSame(lattice, GradientLattice.shared(7));
+        lattice.view(65, 65).get(0);
+        int count = lattice.getPageCount();
+        GradientLattice.shared(7).view(65, 65).get(0);
+        assertEquals(count, lattice.getPageCount());
+    }
+
+    @Test
+    public void testViewsDoNotDuplicatePages() {
+        GradientLattice lattice = new GradientLattice(42);
+        PagedGradientTable small = lattice.view(65, 65);
+        PagedGradientTable large = lattice.view(1000, 1000);
+        small.get(small.index(10, 10));
+        large.get(large.index(10, 10));
+        large.get(large.index(500, 500));
+        assertEquals(2, lattice.getPageCount());
+        assertSame(lattice.page(0, 0), lattice.page(0, 0));
+    }
+
+    @Test
+    public void testHeldPagesSurviveCollection() {
+        GradientLattice lattice = new GradientLattice(42);
+        double[] page = lattice.page(0, 0);
+        collectGarbage(() -> false);
+        assertSame(page, lattice.page(0, 0));
+    }
+
+    @Test
+    public void testReleasedPagesAreRegeneratedEqually() {
+        GradientLattice lattice = new GradientLattice(42);
+        double[] page = lattice.page(3, 5).clone();
+        collectGarbage(() -> lattice.getPageCount() == 0);
+        assertEquals(0, lattice.getPageCount());
+        assertArrayEquals(page, lattice.page(3, 5));
+    }
+
+    @Test
+    public void testSharedViewsAreNotWeighed() {
+        PerlinNoise noise = PerlinNoise.shared(300, 200, 1, 42);
+        noise.compute(0, 0, 300, 200, new double[300 * 200], 0, 300);
+        assertTrue(GradientLattice.shared(42).retainedSize() >= 16L * 301 * 201);
+        assertEquals(0, noise.retainedSize());
+    }
+
+    /**
+     * Runs the garbage collector until the specified condition holds or a number of attempts has been made.
+     *
+     * @param condition the condition to wait for
+     */
+    private static void collectGarbage(BooleanSupplier condition) {
+        for (int i = 0; i < 20 && !condition.getAsBoolean(); i++) {
+            System.gc();
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package h13.noise;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests the tile by tile generation of gradient vectors of {@link GradientTiles}.
+ */
+public class GradientTilesTest {
+
+    @Test
+    public void testIndependentOfParallelism() {
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool multiple = new ForkJoinPool(4);
+        try {
+            assertArrayEquals(
+                GradientTiles.generate(300, 130, 42, single),
+                GradientTiles.generate(300, 130, 42, multiple)
+            );
+        } finally {
+            single.shutdown();
+            multiple.shutdown();
+        }
+    }
+
+    @Test
+    public void testIndependentOfLatticeSize() {
+        double[] small = GradientTiles.generate(70, 70, 42);
+        double[] large = GradientTiles.generate(200, 100, 42);
+        for (int y = 0; y < 70; y++) {
+            for (int x = 0; x < 70; x++) {
+                assertEquals(small[2 * (70 * y + x)], large[2 * (200 * y + x)]);
+                assertEquals(small[2 * (70 * y + x) + 1], large[2 * (200 * y + x) + 1]);
+            }
+        }
+    }
+
+    @Test
+    public void testNestedInPool() {
+        double[] expected = GradientTiles.generate(300, 130, 42);
+        ForkJoinPool pool = NoiseScheduler.getDefault().getPool();
+        // Every worker generates a lattice on the same pool at the same time
+        int tasks = 2 * pool.getParallelism();
+        double[][] results = new double[tasks][];
+        List<ForkJoinTask<?>> generations = new ArrayList<>();
+        for (int i = 0; i < tasks; i++) {
+            int index = i;
+            generations.add(ForkJoinTask.adapt(() -> results[index] = GradientTiles.generate(300, 130, 42, pool)));
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(generations)));
+        for (double[] result : results) {
+            assertArrayEquals(expected, result);
+        }
+    }
+}
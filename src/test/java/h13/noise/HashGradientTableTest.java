@@ -0,0 +1,70 @@
+package h13.noise;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the procedural gradient vectors of {@link HashGradientTable}.
+ */
+public class HashGradientTableTest {
+
+    @Test
+    public void testCornersRarelyShareSlots() {
+        HashGradientTable table = new HashGradientTable(42);
+        Set<Integer> slots = new HashSet<>();
+        for (int y = -512; y < 512; y++) {
+            for (int x = -512; x < 512; x++) {
+                slots.add(table.index(x, y));
+            }
+        }
+        // About 128 collisions are expected for 2^20 corners in 2^32 slots
+        assertTrue(slots.size() > (1 << 20) - 1024, "Too many collisions: " + ((1 << 20) - slots.size()));
+    }
+
+    @Test
+    public void testSlotsDependOnSeed() {
+        HashGradientTable a = new HashGradientTable(1);
+        HashGradientTable b = new HashGradientTable(2);
+        assertNotEquals(a.index(3, 4), b.index(3, 4));
+        assertEquals(a.index(3, 4), new HashGradientTable(1).index(3, 4));
+    }
+
+    @Test
+    public void testComponentsInUnitSquare() {
+        HashGradientTable table = new HashGradientTable(7);
+        for (int i = -1000; i < 1000; i++) {
+            int index = table.index(i, -i);
+            assertTrue(Math.abs(table.getX(index)) <= 1);
+            assertTrue(Math.abs(table.getY(index)) <= 1);
+            assertEquals(table.getX(index) * 0.5 + table.getY(index) * 0.25, table.dot(index, 0.5, 0.25), 1e-15);
+        }
+    }
+
+    @Test
+    public void testComponentsAreBalancedAndUncorrelated() {
+        HashGradientTable table = new HashGradientTable(42);
+        double sumX = 0;
+        double sumY = 0;
+        double sumXY = 0;
+        int n = 0;
+        for (int y = 0; y < 256; y++) {
+            for (int x = 0; x < 256; x++) {
+                int index = table.index(x, y);
+                sumX += table.getX(index);
+                sumY += table.getY(index);
+                sumXY += table.getX(index) * table.getY(index);
+                n++;
+            }
+        }
+        // The standard deviation of the means is about 0.002 for 2^16 uniformly distributed corners
+        assertEquals(0, sumX / n, 0.01);
+        assertEquals(0, sumY / n, 0.01);
+        assertEquals(0, sumXY / n, 0.01);
+    }
+}
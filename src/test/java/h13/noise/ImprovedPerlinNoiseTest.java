@@ -0,0 +1,47 @@
+package h13.noise;
+
+import javafx.geometry.Point2D;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests the gradient access of {@link ImprovedPerlinNoise}.
+ */
+public class ImprovedPerlinNoiseTest {
+
+    @Test
+    public void testGeneratesPermutationSizeGradients() {
+        ImprovedPerlinNoise noise = new ImprovedPerlinNoise(new SimplePerlinNoise(300, 300, new Random(42)));
+        assertEquals(ImprovedPerlinNoise.PERMUTATION_SIZE, noise.getGradients().length);
+        assertArrayEquals(noise.getGradients(), noise.getGradients());
+    }
+
+    @Test
+    public void testGradientIndexMatchesGradient() {
+        ImprovedPerlinNoise noise = new ImprovedPerlinNoise(new SimplePerlinNoise(40, 30, new Random(42)));
+        Point2D[] gradients = noise.getGradients();
+        for (int y = 0; y <= 30; y++) {
+            for (int x = 0; x <= 40; x++) {
+                assertEquals(gradients[noise.getGradientIndex(x, y)], noise.getGradient(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void testSnapshotOfTableNoise() {
+        SimplePerlinNoise base = new SimplePerlinNoise(300, 300, new Random(42));
+        int[] p = new ImprovedPerlinNoise(base).getP();
+        ImprovedPerlinNoise noise = new ImprovedPerlinNoise(base, p, new FixedGradientTable());
+        Point2D[] gradients = noise.getGradients();
+        assertEquals(ImprovedPerlinNoise.PERMUTATION_SIZE, gradients.length);
+        for (int y = 0; y <= 20; y++) {
+            for (int x = 0; x <= 20; x++) {
+                assertEquals(gradients[noise.getGradientIndex(x, y)], noise.getGradient(x, y));
+            }
+        }
+    }
+}
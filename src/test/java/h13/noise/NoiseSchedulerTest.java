@@ -0,0 +1,81 @@
+package h13.noise;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests the tiled evaluation of {@link NoiseScheduler}.
+ */
+public class NoiseSchedulerTest {
+
+    /**
+     * A noise whose value encodes its coordinates, so misplaced values can be detected.
+     */
+    private static final GradientNoise COORDINATES = new GradientNoise() {
+
+        @Override
+        public int getWidth() {
+            return 1000;
+        }
+
+        @Override
+        public int getHeight() {
+            return 1000;
+        }
+
+        @Override
+        public double compute(int x, int y) {
+            return x * 10_000 + y;
+        }
+    };
+
+    private final NoiseScheduler scheduler = new NoiseScheduler(3, 16);
+
+    @AfterEach
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void testBufferLayout() {
+        int x = 5;
+        int y = 7;
+        int w = 70;
+        int h = 50;
+        int stride = 80;
+        int offset = 3;
+        double[] out = new double[offset + stride * (h - y)];
+        scheduler.compute(COORDINATES, x, y, w, h, out, offset, stride);
+        for (int yi = y; yi < h; yi++) {
+            for (int xi = x; xi < w; xi++) {
+                assertEquals(COORDINATES.compute(xi, yi), out[offset + (yi - y) * stride + (xi - x)]);
+            }
+        }
+    }
+
+    @Test
+    public void testMatchesSequentialEvaluation() {
+        PerlinNoise noise = PerlinNoise.seeded(200, 150, 0.05, 42);
+        double[][] expected = new double[200][150];
+        for (int x = 0; x < 200; x++) {
+            for (int y = 0; y < 150; y++) {
+                expected[x][y] = noise.compute(x, y);
+            }
+        }
+        double[][] actual = scheduler.compute(noise, 0, 0, 200, 150);
+        for (int x = 0; x < 200; x++) {
+            for (int y = 0; y < 150; y++) {
+                assertEquals(expected[x][y], actual[x][y], RowKernel.TOLERANCE);
+            }
+        }
+    }
+
+    @Test
+    public void testEmptyArea() {
+        double[] out = new double[1];
+        scheduler.compute(COORDINATES, 10, 10, 10, 20, out, 0, 1);
+        assertEquals(0, out[0]);
+    }
+}
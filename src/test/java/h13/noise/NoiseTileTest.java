@@ -0,0 +1,54 @@
+package h13.noise;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the keys of rendered noise values of {@link NoiseTile}.
+ */
+public class NoiseTileTest {
+
+    @Test
+    public void testEqualNoisesHaveEqualTiles() {
+        PerlinNoise first = PerlinNoise.improved(new SimplePerlinNoise(20, 20, new Random(42)));
+        PerlinNoise second = PerlinNoise.improved(new SimplePerlinNoise(20, 20, new Random(42)));
+        assertTrue(first.hasFingerprint());
+        assertEquals(NoiseTile.of(first, 0, 0, 10, 10), NoiseTile.of(second, 0, 0, 10, 10));
+        assertEquals(
+            NoiseTile.of(first, 0, 0, 10, 10).fingerprint(),
+            NoiseTile.of(second, 0, 0, 10, 10).fingerprint()
+        );
+        assertNotEquals(NoiseTile.of(first, 0, 0, 10, 10), NoiseTile.of(first, 0, 0, 10, 11));
+    }
+
+    @Test
+    public void testEncodingDistinguishesAreas() {
+        NoiseTile tile = new NoiseTile(42, 0, 0, 10, 10);
+        assertArrayEquals(tile.toBytes(), new NoiseTile(42, 0, 0, 10, 10).toBytes());
+        assertFalse(Arrays.equals(tile.toBytes(), new NoiseTile(42, 0, 0, 10, 11).toBytes()));
+        assertFalse(Arrays.equals(tile.toBytes(), new NoiseTile(43, 0, 0, 10, 10).toBytes()));
+    }
+
+    @Test
+    public void testNoiseWithoutFingerprint() {
+        PerlinNoise noise = new SimplePerlinNoise(20, 20, new Random(42)) {
+            @Override
+            public boolean hasFingerprint() {
+                return false;
+            }
+        };
+        PerlinNoise fractal = new FractalPerlinNoise(noise, 1, 2, 2, 0.5);
+        assertFalse(fractal.hasFingerprint());
+        assertThrows(IllegalArgumentException.class, () -> NoiseTile.of(noise, 0, 0, 10, 10));
+        assertThrows(IllegalArgumentException.class, () -> NoiseTile.of(fractal, 0, 0, 10, 10));
+    }
+}
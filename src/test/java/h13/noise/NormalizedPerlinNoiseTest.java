@@ -0,0 +1,56 @@
+package h13.noise;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests the region evaluation of {@link NormalizedPerlinNoise} into caller-supplied buffers.
+ */
+public class NormalizedPerlinNoiseTest {
+
+    @Test
+    public void testRegionMatchesSamples() {
+        PerlinNoise noise = PerlinNoise.normalized(new SimplePerlinNoise(120, 80, 0.05, new Random(42)));
+        double[] out = new double[120 * 80];
+        noise.compute(0, 0, 120, 80, out, 0, 120);
+        for (int y = 0; y < 80; y++) {
+            for (int x = 0; x < 120; x++) {
+                assertEquals(noise.compute(x, y), out[y * 120 + x], RowKernel.TOLERANCE);
+            }
+        }
+    }
+
+    @Test
+    public void testFloatRegionMatchesSamples() {
+        PerlinNoise noise = PerlinNoise.normalized(new SimplePerlinNoise(60, 40, 0.1, new Random(7)));
+        float[] out = new float[60 * 40];
+        noise.compute(0, 0, 60, 40, out, 0, 60);
+        for (int y = 0; y < 40; y++) {
+            for (int x = 0; x < 60; x++) {
+                assertEquals((float) noise.compute(x, y), out[y * 60 + x], 1e-6);
+            }
+        }
+    }
+
+    @Test
+    public void testRegionOnlyWritesArea() {
+        PerlinNoise noise = PerlinNoise.normalized(new SimplePerlinNoise(50, 50, 0.1, new Random(3)));
+        int stride = 20;
+        double[] out = new double[3 + stride * 10];
+        Arrays.fill(out, Double.NaN);
+        noise.compute(10, 20, 25, 30, out, 3, stride);
+        for (int i = 0; i < out.length; i++) {
+            int row = (i - 3) / stride;
+            int column = (i - 3) % stride;
+            if (i < 3 || column >= 15) {
+                assertEquals(Double.NaN, out[i], "index " + i);
+            } else {
+                assertEquals(noise.compute(10 + column, 20 + row), out[i], RowKernel.TOLERANCE);
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package h13.noise;
+
+import h13.util.ConcurrentLRUCache;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the lazily generated pages of {@link PagedGradientTable}.
+ */
+public class PagedGradientTableTest {
+
+    @Test
+    public void testGradientsMatchSeeded() {
+        SimplePerlinNoise seeded = (SimplePerlinNoise) PerlinNoise.seeded(150, 100, 0.05, 42);
+        GradientTable expected = seeded.getGradientTable();
+        PagedGradientTable table = new PagedGradientTable(151, 101, 42);
+        for (int y = 0; y <= 100; y++) {
+            for (int x = 0; x <= 150; x++) {
+                assertEquals(expected.get(expected.index(x, y)), table.get(table.index(x, y)));
+            }
+        }
+    }
+
+    @Test
+    public void testPagesAreGeneratedOnAccess() {
+        GradientLattice lattice = new GradientLattice(42);
+        PagedGradientTable table = lattice.view(1000, 1000);
+        assertEquals(0, lattice.getPageCount());
+        table.get(table.index(0, 0));
+        table.get(table.index(63, 63));
+        assertEquals(1, lattice.getPageCount());
+        table.get(table.index(64, 0));
+        assertEquals(2, lattice.getPageCount());
+    }
+
+    @Test
+    public void testIndexChecksDimension() {
+        PagedGradientTable table = new PagedGradientTable(10, 10, 42);
+        assertThrows(IndexOutOfBoundsException.class, () -> table.index(10, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> table.index(0, 10));
+        assertThrows(IndexOutOfBoundsException.class, () -> table.index(-1, 0));
+    }
+
+    @Test
+    public void testRetainedSizeDoesNotGrow() {
+        PerlinNoise noise = PerlinNoise.paged(300, 200, 0.01, 42);
+        long size = noise.retainedSize();
+        noise.compute(0, 0, 300, 200, new double[300 * 200], 0, 300);
+        assertEquals(size, noise.retainedSize());
+    }
+
+    @Test
+    public void testRetainedSizeCoversLattice() {
+        PagedGradientTable table = new PagedGradientTable(300, 200, 42);
+        assertTrue(table.retainedSize() >= 16L * 300 * 200);
+    }
+
+    @Test
+    public void testCacheBoundTriggers() {
+        long size = PerlinNoise.paged(300, 200, 0.01, 0).retainedSize();
+        ConcurrentLRUCache<Long, PerlinNoise> cache = new ConcurrentLRUCache<>(16, size * 2, (k, v) -> v.retainedSize());
+        for (long seed = 0; seed < 4; seed++) {
+            cache.put(seed, PerlinNoise.paged(300, 200, 0.01, seed));
+        }
+        assertEquals(2, cache.size());
+        assertEquals(size * 2, cache.weight());
+    }
+}
@@ -0,0 +1,70 @@
+package h13.noise;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the encodings of {@link QuantizedGradientTable}.
+ */
+public class QuantizedGradientTableTest {
+
+    private static final ArrayGradientTable SEEDED =
+        new ArrayGradientTable(150, 70, GradientTiles.generate(150, 70, 42));
+
+    @Test
+    public void testGenerateMatchesQuantize() {
+        for (QuantizedGradientTable.Encoding encoding : QuantizedGradientTable.Encoding.values()) {
+            QuantizedGradientTable expected = QuantizedGradientTable.quantize(SEEDED, encoding);
+            QuantizedGradientTable actual = QuantizedGradientTable.generate(150, 70, 42, encoding);
+            assertEquals(expected, actual);
+            assertEquals(expected.fingerprint(), actual.fingerprint());
+            assertEquals(150L * 70 * encoding.getBytes(), actual.retainedSize());
+        }
+    }
+
+    @Test
+    public void testComponentsDeviation() {
+        QuantizedGradientTable table = QuantizedGradientTable.generate(150, 70, 42,
+            QuantizedGradientTable.Encoding.COMPONENTS);
+        for (int i = 0; i < 150 * 70; i++) {
+            assertEquals(SEEDED.getX(i), table.getX(i), 1.0 / 254 + 1e-12);
+            assertEquals(SEEDED.getY(i), table.getY(i), 1.0 / 254 + 1e-12);
+        }
+    }
+
+    @Test
+    public void testAngleKeepsDirection() {
+        QuantizedGradientTable table = QuantizedGradientTable.generate(150, 70, 42,
+            QuantizedGradientTable.Encoding.ANGLE);
+        for (int i = 0; i < 150 * 70; i++) {
+            double expected = Math.atan2(SEEDED.getY(i), SEEDED.getX(i));
+            double actual = Math.atan2(table.getY(i), table.getX(i));
+            double difference = Math.abs(Math.IEEEremainder(expected - actual, 2 * Math.PI));
+            assertTrue(difference <= Math.PI / 256 + 1e-9);
+            assertEquals(Math.sqrt(2.0 / 3.0), Math.hypot(table.getX(i), table.getY(i)), 1e-12);
+        }
+    }
+
+    @Test
+    public void testDotMatchesComponents() {
+        for (QuantizedGradientTable.Encoding encoding : QuantizedGradientTable.Encoding.values()) {
+            QuantizedGradientTable table = QuantizedGradientTable.generate(20, 20, 42, encoding);
+            for (int i = 0; i < 400; i++) {
+                assertEquals(table.getX(i) * 0.3 + table.getY(i) * -0.7, table.dot(i, 0.3, -0.7), 1e-15);
+            }
+        }
+    }
+
+    @Test
+    public void testDefaultEncodingApproximatesSeeded() {
+        PerlinNoise seeded = PerlinNoise.seeded(100, 50, 0.05, 42);
+        PerlinNoise quantized = PerlinNoise.quantized(100, 50, 0.05, 42);
+        for (int y = 0; y < 50; y++) {
+            for (int x = 0; x < 100; x++) {
+                assertEquals(seeded.compute(x, y), quantized.compute(x, y), 1.0 / 127);
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package h13.noise;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Tests the shared column tables and the kernels of {@link RowKernel}.
+ */
+public class RowKernelTest {
+
+    @Test
+    public void testColumnsMatchSampleOffsets() {
+        RowKernel.Row row = new RowKernel.Row().setColumns(5, 105, 0.037);
+        for (int x = 5; x < 105; x++) {
+            double fx = x * 0.037;
+            int cell = (int) Math.floor(fx);
+            assertEquals(cell, row.x0[x - 5]);
+            assertEquals(fx - cell, row.dx[x - 5]);
+            assertEquals(RowKernel.fade(fx - cell), row.fdx[x - 5]);
+        }
+    }
+
+    @Test
+    public void testRowIsReused() {
+        RowKernel.Row row = new RowKernel.Row().setColumns(0, 100, 0.1);
+        double[] dx = row.dx;
+        row.setColumns(0, 50, 0.2);
+        assertSame(dx, row.dx);
+        assertEquals(0.2 * 49 - Math.floor(0.2 * 49), row.dx[49]);
+    }
+
+    @Test
+    public void testKernelMatchesScalar() {
+        Random random = new Random(42);
+        RowKernel kernel = RowKernel.getInstance();
+        RowKernel.Row row = new RowKernel.Row().setColumns(0, 37, 1.0 / 37);
+        row.g00x = random.nextDouble();
+        row.g00y = random.nextDouble();
+        row.g01x = random.nextDouble();
+        row.g01y = random.nextDouble();
+        row.g10x = random.nextDouble();
+        row.g10y = random.nextDouble();
+        row.g11x = random.nextDouble();
+        row.g11y = random.nextDouble();
+        double[] expected = new double[40];
+        double[] actual = new double[40];
+        kernel.computeScalar(row, 0.3, RowKernel.fade(0.3), expected, 3, 1, 36);
+        kernel.compute(row, 0.3, RowKernel.fade(0.3), actual, 3, 1, 36);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], actual[i], RowKernel.TOLERANCE);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package h13.noise;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Tests the frequency derivation of Perlin noise objects through {@link ScaledPerlinNoise}.
+ */
+public class ScaledPerlinNoiseTest {
+
+    /**
+     * A Perlin noise object which does not derive its frequency itself.
+     */
+    private static class CustomPerlinNoise extends AbstractPerlinNoise {
+
+        private final SimplePerlinNoise noise = new SimplePerlinNoise(40, 40, new Random(42));
+
+        CustomPerlinNoise(double frequency) {
+            super(0, 0, frequency, new Random(0));
+        }
+
+        @Override
+        public double compute(int x, int y) {
+            return compute(x * getFrequency(), y * getFrequency());
+        }
+
+        @Override
+        public double compute(double x, double y) {
+            return noise.compute(x, y);
+        }
+
+        @Override
+        public double fade(double t) {
+            return noise.fade(t);
+        }
+
+        @Override
+        public double interpolate(double x1, double x2, double alpha) {
+            return noise.interpolate(x1, x2, alpha);
+        }
+    }
+
+    /**
+     * A delegating Perlin noise object which does not derive its underlying Perlin noise object itself.
+     */
+    private static class InvertedPerlinNoise extends DelegatePerlinNoise {
+
+        InvertedPerlinNoise(PerlinNoise delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public double compute(int x, int y) {
+            return -delegate.compute(x, y);
+        }
+
+        @Override
+        public double compute(double x, double y) {
+            return -delegate.compute(x, y);
+        }
+    }
+
+    @Test
+    public void testDefaultDelegateDerivation() {
+        PerlinNoise noise = new InvertedPerlinNoise(new SimplePerlinNoise(40, 40, 0.1, new Random(42)));
+        PerlinNoise expected = new InvertedPerlinNoise(new SimplePerlinNoise(40, 40, 0.05, new Random(42)));
+        PerlinNoise derived = noise.withFrequency(0.05);
+        assertInstanceOf(ScaledPerlinNoise.class, derived);
+        assertEquals(0.05, derived.getFrequency());
+        assertEquals(0.1, noise.getFrequency());
+        for (int y = 0; y < 40; y++) {
+            for (int x = 0; x < 40; x++) {
+                assertEquals(expected.compute(x, y), derived.compute(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void testDefaultDerivation() {
+        PerlinNoise noise = new CustomPerlinNoise(0.1);
+        PerlinNoise expected = new CustomPerlinNoise(0.05);
+        PerlinNoise derived = noise.withFrequency(0.05);
+        assertInstanceOf(ScaledPerlinNoise.class, derived);
+        assertSame(noise, noise.withFrequency(0.1));
+        assertEquals(0.05, derived.getFrequency());
+        assertEquals(0.1, noise.getFrequency());
+        for (int y = 0; y < 40; y++) {
+            for (int x = 0; x < 40; x++) {
+                assertEquals(expected.compute(x, y), derived.compute(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void testDerivationIsNotNested() {
+        PerlinNoise noise = new CustomPerlinNoise(0.1);
+        PerlinNoise derived = noise.withFrequency(0.05).withFrequency(0.2);
+        PerlinNoise expected = new CustomPerlinNoise(0.2);
+        for (int y = 0; y < 40; y++) {
+            for (int x = 0; x < 40; x++) {
+                assertEquals(expected.compute(x, y), derived.compute(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void testDelegatesDeriveUnderlyingNoise() {
+        PerlinNoise noise = new NormalizedPerlinNoise(PerlinNoise.improved(new SimplePerlinNoise(40, 40, 0.1,
+            new Random(42))));
+        PerlinNoise expected = new NormalizedPerlinNoise(PerlinNoise.improved(new SimplePerlinNoise(40, 40, 0.05,
+            new Random(42))));
+        PerlinNoise derived = noise.withFrequency(0.05);
+        assertInstanceOf(NormalizedPerlinNoise.class, derived);
+        assertEquals(expected, derived);
+        for (int y = 0; y < 40; y++) {
+            for (int x = 0; x < 40; x++) {
+                assertEquals(expected.compute(x, y), derived.compute(x, y));
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package h13.noise;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests the region evaluation of {@link SimplePerlinNoise}.
+ */
+public class SimplePerlinNoiseTest {
+
+    @Test
+    public void testRegionMatchesSamples() {
+        SimplePerlinNoise noise = new SimplePerlinNoise(300, 200, 0.037, new Random(42));
+        int x = 13;
+        int y = 7;
+        int w = 290;
+        int h = 180;
+        int stride = 300;
+        double[] out = new double[5 + stride * (h - y)];
+        noise.compute(x, y, w, h, out, 5, stride);
+        for (int yi = y; yi < h; yi++) {
+            for (int xi = x; xi < w; xi++) {
+                assertEquals(noise.compute(xi, yi), out[5 + (yi - y) * stride + (xi - x)], RowKernel.TOLERANCE);
+            }
+        }
+    }
+
+    @Test
+    public void testFloatRegionMatchesSamples() {
+        SimplePerlinNoise noise = new SimplePerlinNoise(100, 100, 0.1, new Random(7));
+        float[] out = new float[100 * 100];
+        noise.compute(0, 0, 100, 100, out, 0, 100);
+        for (int y = 0; y < 100; y++) {
+            for (int x = 0; x < 100; x++) {
+                assertEquals((float) noise.compute(x, y), out[y * 100 + x], 1e-6);
+            }
+        }
+    }
+
+    @Test
+    public void testImprovedRegionMatchesSamples() {
+        PerlinNoise noise = PerlinNoise.improved(new SimplePerlinNoise(200, 100, 0.05, new Random(3)));
+        double[] out = new double[200 * 100];
+        noise.compute(0, 0, 200, 100, out, 0, 200);
+        for (int y = 0; y < 100; y++) {
+            for (int x = 0; x < 200; x++) {
+                assertEquals(noise.compute(x, y), out[y * 200 + x], RowKernel.TOLERANCE);
+            }
+        }
+    }
+
+    @Test
+    public void testRegionMatchesSamplesAcrossCellSizes() {
+        for (double frequency : new double[] {1, 0.5, 0.3, 0.25, 1.0 / 3}) {
+            SimplePerlinNoise noise = new SimplePerlinNoise(40, 30, frequency, new Random(11));
+            double[] out = new double[37 * 28];
+            noise.compute(3, 2, 40, 30, out, 0, 37);
+            for (int y = 2; y < 30; y++) {
+                for (int x = 3; x < 40; x++) {
+                    assertEquals(
+                        noise.compute(x, y),
+                        out[(y - 2) * 37 + (x - 3)],
+                        RowKernel.TOLERANCE,
+                        "frequency " + frequency
+                    );
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSingleColumnAndRowRegions() {
+        SimplePerlinNoise noise = new SimplePerlinNoise(64, 64, 0.07, new Random(5));
+        double[] column = new double[64];
+        noise.compute(17, 0, 18, 64, column, 0, 1);
+        double[] row = new double[64];
+        noise.compute(0, 17, 64, 18, row, 0, 64);
+        for (int i = 0; i < 64; i++) {
+            assertEquals(noise.compute(17, i), column[i], RowKernel.TOLERANCE);
+            assertEquals(noise.compute(i, 17), row[i], RowKernel.TOLERANCE);
+        }
+    }
+
+    @Test
+    public void testSubclassOverridesAreUsed() {
+        SimplePerlinNoise noise = new SimplePerlinNoise(50, 50, 0.1, new Random(42)) {
+
+            @Override
+            public double fade(double t) {
+                return t;
+            }
+        };
+        double[] out = new double[50 * 50];
+        noise.compute(0, 0, 50, 50, out, 0, 50);
+        for (int y = 0; y < 50; y++) {
+            for (int x = 0; x < 50; x++) {
+                assertEquals(noise.compute(x, y), out[y * 50 + x]);
+            }
+        }
+    }
+}
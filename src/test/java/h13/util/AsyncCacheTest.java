@@ -0,0 +1,87 @@
+package h13.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the shared computations of {@link AsyncCache}.
+ */
+public class AsyncCacheTest {
+
+    @Test
+    public void testSingleLoadUnderContention() throws Exception {
+        AsyncCache<Integer, String> cache = new AsyncCache<>(new ConcurrentLRUCache<>(16));
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<CompletableFuture<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                futures.add(cache.get(1, key -> {
+                    loads.incrementAndGet();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "value";
+                }, executor));
+            }
+            release.countDown();
+            for (CompletableFuture<String> future : futures) {
+                assertEquals("value", future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testRequestsAreRecordedOnce() {
+        ConcurrentLRUCache<Integer, String> synchronous = new ConcurrentLRUCache<>(16);
+        AsyncCache<Integer, String> cache = new AsyncCache<>(synchronous);
+        assertEquals("1", cache.get(1, String::valueOf, Runnable::run).join());
+        assertEquals("1", cache.get(1, String::valueOf, Runnable::run).join());
+        CacheStats stats = synchronous.stats();
+        assertEquals(1, stats.missCount());
+        assertEquals(1, stats.hitCount());
+        assertEquals(1, stats.loadSuccessCount());
+    }
+
+    @Test
+    public void testCachedValuesBypassExecutor() {
+        AsyncCache<Integer, String> cache = new AsyncCache<>(new ConcurrentLRUCache<>(16));
+        AtomicInteger dispatches = new AtomicInteger();
+        Executor executor = command -> {
+            dispatches.incrementAndGet();
+            command.run();
+        };
+        assertEquals("1", cache.get(1, String::valueOf, executor).join());
+        CompletableFuture<String> cached = cache.get(1, String::valueOf, executor);
+        assertTrue(cached.isDone());
+        assertEquals("1", cached.join());
+        assertEquals(1, dispatches.get());
+    }
+
+    @Test
+    public void testFailedLoadIsRetried() {
+        AsyncCache<Integer, String> cache = new AsyncCache<>(new ConcurrentLRUCache<>(16));
+        CompletableFuture<String> failed = cache.get(1, key -> {
+            throw new IllegalStateException();
+        }, Runnable::run);
+        assertTrue(failed.isCompletedExceptionally());
+        assertEquals("1", cache.get(1, String::valueOf, Runnable::run).join());
+    }
+}
@@ -0,0 +1,59 @@
+package h13.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests the statistics recorded by {@link ConcurrentLRUCache}.
+ */
+public class CacheStatsTest {
+
+    @Test
+    public void testHitsAndMisses() {
+        ConcurrentLRUCache<Integer, Integer> cache = new ConcurrentLRUCache<>(4);
+        cache.get(1);
+        cache.put(1, 1);
+        cache.get(1);
+        cache.computeIfAbsent(1, k -> k);
+        cache.computeIfAbsent(2, k -> k);
+        CacheStats stats = cache.stats();
+        assertEquals(2, stats.hitCount());
+        assertEquals(2, stats.missCount());
+        assertEquals(4, stats.requestCount());
+        assertEquals(0.5, stats.hitRate());
+        assertEquals(1, stats.loadSuccessCount());
+        assertEquals(2, stats.weight());
+    }
+
+    @Test
+    public void testLoadFailures() {
+        ConcurrentLRUCache<Integer, Integer> cache = new ConcurrentLRUCache<>(4);
+        cache.computeIfAbsent(1, k -> null);
+        assertThrows(IllegalStateException.class, () -> cache.computeIfAbsent(2, k -> {
+            throw new IllegalStateException();
+        }));
+        CacheStats stats = cache.stats();
+        assertEquals(2, stats.loadFailureCount());
+        assertEquals(2, stats.loadCount());
+        assertEquals(0, stats.loadSuccessCount());
+    }
+
+    @Test
+    public void testEvictions() {
+        ConcurrentLRUCache<Integer, Integer> cache = new ConcurrentLRUCache<>(4);
+        for (int i = 0; i < 10; i++) {
+            cache.put(i, i);
+        }
+        assertEquals(6, cache.stats().evictionCount());
+    }
+
+    @Test
+    public void testEmptyStats() {
+        CacheStats stats = CacheStats.of(3);
+        assertEquals(1, stats.hitRate());
+        assertEquals(0, stats.averageLoadPenalty());
+        assertEquals(3, stats.weight());
+    }
+}
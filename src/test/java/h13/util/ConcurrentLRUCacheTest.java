@@ -0,0 +1,107 @@
+package h13.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the bounds and the sampled eviction of {@link ConcurrentLRUCache}.
+ */
+public class ConcurrentLRUCacheTest {
+
+    @Test
+    public void testCapacityIsBounded() {
+        ConcurrentLRUCache<Integer, Integer> cache = new ConcurrentLRUCache<>(32);
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, i);
+            assertTrue(cache.size() <= 32);
+        }
+        assertEquals(32, cache.size());
+    }
+
+    @Test
+    public void testWeightIsBounded() {
+        ConcurrentLRUCache<Integer, String> cache = new ConcurrentLRUCache<>(100, (key, value) -> value.length());
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, "x".repeat(i % 10 + 1));
+            assertTrue(cache.weight() <= 100);
+        }
+        long weight = 0;
+        for (int i = 0; i < 100; i++) {
+            String value = cache.get(i);
+            weight += value == null ? 0 : value.length();
+        }
+        assertEquals(weight, cache.weight());
+    }
+
+    @Test
+    public void testRecentlyUsedMappingSurvives() throws InterruptedException {
+        ConcurrentLRUCache<Integer, Integer> cache = new ConcurrentLRUCache<>(8);
+        for (int i = 0; i < 8; i++) {
+            cache.put(i, i);
+        }
+        Thread.sleep(1);
+        cache.get(0);
+        cache.put(8, 8);
+        assertNotNull(cache.get(0));
+        assertEquals(8, cache.size());
+    }
+
+    @Test
+    public void testComputeIfAbsentLoadsOncePerKey() throws Exception {
+        ConcurrentLRUCache<Integer, Integer> cache = new ConcurrentLRUCache<>(64);
+        AtomicInteger loads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 256; i++) {
+                int key = i % 4;
+                futures.add(executor.submit(() -> cache.computeIfAbsent(key, k -> {
+                    loads.incrementAndGet();
+                    return k * 10;
+                })));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                assertEquals(i % 4 * 10, futures.get(i).get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    public void testNullValueIsNotCached() {
+        ConcurrentLRUCache<Integer, Integer> cache = new ConcurrentLRUCache<>(4);
+        assertNull(cache.computeIfAbsent(1, k -> null));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.computeIfAbsent(1, k -> 1));
+    }
+
+    @Test
+    public void testClearResetsWeight() {
+        ConcurrentLRUCache<Integer, Integer> cache = new ConcurrentLRUCache<>(4);
+        cache.put(1, 1);
+        cache.put(2, 2);
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.weight());
+    }
+
+    @Test
+    public void testNegativeBounds() {
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentLRUCache<>(-1));
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentLRUCache<>(-1, Weigher.singleton()));
+    }
+}
@@ -0,0 +1,129 @@
+package h13.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests the persisted values and their validation of {@link DiskCache}.
+ */
+public class DiskCacheTest {
+
+    private static final double[] VALUE = {0.5, -0.25, 1, Math.PI};
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Opens a cache whose keys are strings with the specified fingerprint, so that the fingerprints of different keys
+     * can collide.
+     */
+    private DiskCache<String> open(long fingerprint) throws IOException {
+        return new DiskCache<>(directory, 1024 * 1024, key -> fingerprint, DiskCacheTest::encode);
+    }
+
+    private static byte[] encode(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private Path onlyFile() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".tile")).findFirst().orElseThrow();
+        }
+    }
+
+    @Test
+    public void testValuesSurviveRestart() throws IOException {
+        open(42).put("tile", VALUE);
+        DiskCache<String> cache = open(42);
+        assertEquals(1, cache.size());
+        assertArrayEquals(VALUE, cache.get("tile"));
+    }
+
+    @Test
+    public void testCollidingKeyIsNotReturned() throws IOException {
+        DiskCache<String> cache = open(42);
+        cache.put("tile", VALUE);
+        assertNull(cache.get("other"));
+        double[] other = {1, 2};
+        assertArrayEquals(other, cache.computeIfAbsent("other", key -> other));
+        assertNull(cache.get("tile"));
+        assertArrayEquals(other, cache.get("other"));
+    }
+
+    @Test
+    public void testCollidingKeyIsCountedAsMiss() throws IOException {
+        DiskCache<String> cache = open(42);
+        cache.put("tile", VALUE);
+        assertNull(cache.get("other"));
+        assertNull(cache.computeIfAbsent("other", key -> null));
+        CacheStats stats = cache.stats();
+        assertEquals(2, stats.missCount());
+        assertEquals(0, stats.hitCount());
+        assertArrayEquals(VALUE, cache.get("tile"));
+    }
+
+    @Test
+    public void testPutReplacesValue() throws IOException {
+        DiskCache<String> cache = open(42);
+        double[] other = {1, 2};
+        assertNull(cache.put("tile", VALUE));
+        assertNull(cache.put("tile", other));
+        assertEquals(1, cache.size());
+        assertEquals(Files.size(onlyFile()), cache.weight());
+        assertArrayEquals(other, cache.get("tile"));
+    }
+
+    @Test
+    public void testCorruptedFileIsDiscarded() throws IOException {
+        open(42).put("tile", VALUE);
+        Path file = onlyFile();
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(file, bytes);
+        DiskCache<String> cache = open(42);
+        assertNull(cache.get("tile"));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.weight());
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    public void testTruncatedFileIsDiscarded() throws IOException {
+        open(42).put("tile", VALUE);
+        Path file = onlyFile();
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - Double.BYTES));
+        DiskCache<String> cache = open(42);
+        assertNull(cache.get("tile"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() throws IOException {
+        DiskCache<String> probe = new DiskCache<>(directory, Long.MAX_VALUE, String::hashCode, DiskCacheTest::encode);
+        probe.put("a", VALUE);
+        long size = probe.weight();
+        probe.clear();
+        DiskCache<String> cache = new DiskCache<>(directory, 2 * size, String::hashCode, DiskCacheTest::encode);
+        cache.put("a", VALUE);
+        cache.put("b", VALUE);
+        assertArrayEquals(VALUE, cache.get("a"));
+        cache.put("c", VALUE);
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.stats().evictionCount());
+        assertArrayEquals(VALUE, cache.get("a"));
+        assertNull(cache.get("b"));
+    }
+}